@@ -0,0 +1,4 @@
+INSERT INTO cliente (id, nome, endereco, tipo) VALUES (1, 'Cliente Benchmark', 'Rua A', 'BRONZE');
+INSERT INTO produto (id, nome, descricao, preco, peso, tipo) VALUES (1, 'Livro', 'Livro de teste', 50.00, 1, 'LIVRO');
+INSERT INTO carrinho_de_compras (id, cliente_id, data) VALUES (1, 1, CURRENT_DATE);
+INSERT INTO item_compra (id, produto_id, quantidade, carrinho_id) VALUES (1, 1, 1, 1);
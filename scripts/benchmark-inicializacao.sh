@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Mede o tempo entre o início da JVM e a primeira resposta 200 do /finalizar e a
+# memória residente (RSS) após o aquecimento.
+#
+# Uso: scripts/benchmark-inicializacao.sh [padrao|inicio-rapido] [execucoes] [requisicoes-aquecimento]
+#
+# O modo padrao usa o jar executável de "./mvnw package"; o modo inicio-rapido usa os
+# artefatos de "./mvnw -Pinicio-rapido package" (jar comum, AOT e arquivo CDS).
+set -euo pipefail
+
+MODO="${1:-padrao}"
+EXECUCOES="${2:-5}"
+AQUECIMENTO="${3:-500}"
+PORTA="${PORTA:-18080}"
+
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+ALVO="$RAIZ/target"
+DADOS="$RAIZ/scripts/benchmark-dados.sql"
+URL="http://localhost:$PORTA/finalizar?carrinhoId=1&clienteId=1"
+
+JAR="$(ls "$ALVO"/*.jar | grep -v -- '-exec.jar' | head -n 1)"
+
+ARGS_APP=(
+	"--server.port=$PORTA"
+	"--spring.sql.init.data-locations=file:$DADOS"
+	"--spring.jpa.defer-datasource-initialization=true"
+	"--ecommerce.admissao.cliente.requisicoes-por-segundo=1000000"
+	"--ecommerce.admissao.cliente.capacidade=1000000"
+)
+
+case "$MODO" in
+	padrao)
+		COMANDO=(java -jar "$JAR")
+		;;
+	inicio-rapido)
+		COMANDO=(java -XX:SharedArchiveFile="$ALVO/app-cds.jsa" -Dspring.aot.enabled=true
+			-Dspring.profiles.active=inicio-rapido
+			-cp "$JAR:$(cat "$ALVO/classpath.txt")" ecommerce.CompraApplication)
+		;;
+	*)
+		echo "Modo desconhecido: $MODO" >&2
+		exit 1
+		;;
+esac
+
+agora_ms() {
+	echo $(( $(date +%s%N) / 1000000 ))
+}
+
+status_finalizar() {
+	curl -s -o /dev/null -w '%{http_code}' -X POST "$URL" || true
+}
+
+echo "modo=$MODO execucoes=$EXECUCOES aquecimento=$AQUECIMENTO"
+echo "execucao,primeira_compra_ms,rss_kb"
+
+TEMPOS=()
+for ((i = 1; i <= EXECUCOES; i++)); do
+	INICIO=$(agora_ms)
+	"${COMANDO[@]}" "${ARGS_APP[@]}" > "$ALVO/benchmark-inicializacao-$i.log" 2>&1 &
+	PID=$!
+
+	# O simulador de pagamento recusa parte das compras, então repete até obter 200.
+	until [ "$(status_finalizar)" = "200" ]; do
+		if ! kill -0 "$PID" 2>/dev/null; then
+			echo "A aplicação encerrou antes da primeira compra; veja $ALVO/benchmark-inicializacao-$i.log" >&2
+			exit 1
+		fi
+		sleep 0.01
+	done
+	PRIMEIRA_COMPRA=$(( $(agora_ms) - INICIO ))
+
+	for ((j = 0; j < AQUECIMENTO; j++)); do
+		status_finalizar > /dev/null
+	done
+	RSS=$(awk '/VmRSS/ { print $2 }' "/proc/$PID/status")
+
+	kill "$PID"
+	wait "$PID" 2>/dev/null || true
+
+	TEMPOS+=("$PRIMEIRA_COMPRA")
+	echo "$i,$PRIMEIRA_COMPRA,$RSS"
+done
+
+MEDIANA=$(printf '%s\n' "${TEMPOS[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+echo "mediana_primeira_compra_ms=$MEDIANA"
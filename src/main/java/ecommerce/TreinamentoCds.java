@@ -0,0 +1,46 @@
+package ecommerce;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+ * Execução de treino do arquivo CDS, chamada só pelo build do perfil Maven
+ * inicio-rapido: sobe a aplicação, faz compras pelo /finalizar para que as
+ * classes do fluxo de compra (conversores, interceptores, JPA, transações)
+ * entrem no arquivo e encerra a JVM. A aplicação normal nunca passa por aqui.
+ */
+public class TreinamentoCds {
+
+    private static final int COMPRAS = 50;
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext contexto = SpringApplication.run(CompraApplication.class, args);
+        int codigo;
+        try {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            HttpClient cliente = HttpClient.newHttpClient();
+            HttpRequest compra = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + porta + "/finalizar?carrinhoId=1&clienteId=1"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+            // O status não importa (o pagamento simulado recusa parte das compras): importa percorrer o fluxo
+            int concluidas = 0;
+            for (int i = 0; i < COMPRAS; i++) {
+                if (cliente.send(compra, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    concluidas++;
+                }
+            }
+            System.out.println("Treino CDS: " + concluidas + " de " + COMPRAS + " compras concluídas.");
+        } finally {
+            codigo = SpringApplication.exit(contexto);
+        }
+        System.exit(codigo);
+    }
+}
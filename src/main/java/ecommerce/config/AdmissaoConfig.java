@@ -0,0 +1,53 @@
+package ecommerce.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.controller.admissao.BucketsPorCliente;
+import ecommerce.controller.admissao.ControleAdmissaoInterceptor;
+import ecommerce.controller.admissao.LimiteConcorrenciaAdaptativo;
+import ecommerce.controller.admissao.PrazoInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class AdmissaoConfig {
+
+	@Bean
+	public LimiteConcorrenciaAdaptativo limiteConcorrencia(
+			@Value("${ecommerce.admissao.concorrencia.limite-inicial:50}") int limiteInicial,
+			@Value("${ecommerce.admissao.concorrencia.limite-minimo:4}") int limiteMinimo,
+			@Value("${ecommerce.admissao.concorrencia.limite-maximo:200}") int limiteMaximo,
+			@Value("${ecommerce.admissao.concorrencia.latencia-alvo-ms:250}") long latenciaAlvoMs,
+			@Value("${ecommerce.admissao.concorrencia.fator-reducao:0.9}") double fatorReducao) {
+		return new LimiteConcorrenciaAdaptativo(limiteInicial, limiteMinimo, limiteMaximo,
+				TimeUnit.MILLISECONDS.toNanos(latenciaAlvoMs), fatorReducao);
+	}
+
+	@Bean
+	public BucketsPorCliente bucketsPorCliente(
+			@Value("${ecommerce.admissao.cliente.max-clientes:100000}") int maxClientes,
+			@Value("${ecommerce.admissao.cliente.capacidade:10}") double capacidade,
+			@Value("${ecommerce.admissao.cliente.requisicoes-por-segundo:5}") double requisicoesPorSegundo,
+			@Value("${ecommerce.admissao.cliente.ociosidade-s:300}") long ociosidadeS) {
+		return new BucketsPorCliente(maxClientes, capacidade, requisicoesPorSegundo,
+				TimeUnit.SECONDS.toNanos(ociosidadeS));
+	}
+
+	@Bean
+	public ControleAdmissaoInterceptor controleAdmissaoInterceptor(LimiteConcorrenciaAdaptativo limiteConcorrencia,
+			BucketsPorCliente bucketsPorCliente, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		return new ControleAdmissaoInterceptor(limiteConcorrencia, bucketsPorCliente, objectMapper, meterRegistry);
+	}
+
+	@Bean
+	public PrazoInterceptor prazoInterceptor(@Value("${ecommerce.prazo.padrao-ms:3000}") long prazoPadraoMs,
+			@Value("${ecommerce.prazo.maximo-ms:10000}") long prazoMaximoMs) {
+		return new PrazoInterceptor(TimeUnit.MILLISECONDS.toNanos(prazoPadraoMs),
+				TimeUnit.MILLISECONDS.toNanos(prazoMaximoMs));
+	}
+}
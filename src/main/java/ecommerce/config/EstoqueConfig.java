@@ -0,0 +1,70 @@
+package ecommerce.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import ecommerce.external.EstoqueBanco;
+import ecommerce.external.EstoqueComHedge;
+import ecommerce.external.EstoqueMonitorado;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.fake.EstoqueSimulado;
+import ecommerce.monitoramento.ProdutosQuentes;
+
+@Configuration
+public class EstoqueConfig {
+
+	/*
+	 * Implementação injetada no CompraService: o estoque concreto envolvido pelos
+	 * decoradores. Com ecommerce.estoque.modo=banco o estoque vem do banco
+	 * compartilhado; caso contrário, do simulador em memória. O monitoramento fica
+	 * por fora do hedge para contar cada consulta uma única vez.
+	 *
+	 * O hedge só envolve o simulador (o estoque remoto). No modo banco a consulta
+	 * iria para as threads do hedge, fora da transação da compra, e cada uma
+	 * ocuparia uma segunda conexão do pool do Hikari (10 por padrão) enquanto a
+	 * compra segura a sua: sob a concorrência admitida no /finalizar o pool se
+	 * esgota e as compras terminam em 504.
+	 */
+	@Bean
+	@Primary
+	public IEstoqueExternal estoqueExternal(ObjectProvider<EstoqueBanco> estoqueBanco,
+			EstoqueSimulado estoqueSimulado, ProdutosQuentes produtosQuentes,
+			@Qualifier("executorHedgeEstoque") ExecutorService executorHedge,
+			@Value("${ecommerce.estoque.hedge.habilitado:true}") boolean hedgeHabilitado,
+			@Value("${ecommerce.estoque.hedge.percentil:0.95}") double percentil,
+			@Value("${ecommerce.estoque.hedge.atraso-inicial-ms:50}") long atrasoInicialMs,
+			@Value("${ecommerce.estoque.hedge.atraso-minimo-ms:2}") long atrasoMinimoMs,
+			@Value("${ecommerce.estoque.hedge.taxa-maxima:0.05}") double taxaMaxima) {
+		IEstoqueExternal estoque = estoqueBanco.getIfAvailable();
+		if (estoque == null) {
+			estoque = estoqueSimulado;
+			if (hedgeHabilitado) {
+				estoque = new EstoqueComHedge(estoque, executorHedge, percentil,
+						TimeUnit.MILLISECONDS.toNanos(atrasoInicialMs), TimeUnit.MILLISECONDS.toNanos(atrasoMinimoMs),
+						taxaMaxima);
+			}
+		}
+		return new EstoqueMonitorado(estoque, produtosQuentes);
+	}
+
+	// Sem fila: com todas as threads ocupadas a consulta roda na thread da requisição, sem hedge
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService executorHedgeEstoque(@Value("${ecommerce.estoque.hedge.threads:64}") int threads) {
+		AtomicInteger contador = new AtomicInteger();
+		return new ThreadPoolExecutor(0, threads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), tarefa -> {
+			Thread thread = new Thread(tarefa, "estoque-hedge-" + contador.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
@@ -0,0 +1,22 @@
+package ecommerce.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ecommerce.controller.CompraController;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.IPagamentoExternal;
+import ecommerce.service.CompraService;
+
+@Configuration
+public class InicializacaoConfig {
+
+	// Com o perfil inicio-rapido os beans são criados sob demanda, exceto os do fluxo de
+	// finalização, para que a primeira compra não pague o custo de inicialização.
+	@Bean
+	public static LazyInitializationExcludeFilter fluxoDeCompraSemLazy() {
+		return LazyInitializationExcludeFilter.forBeanTypes(CompraController.class, CompraService.class,
+				IEstoqueExternal.class, IPagamentoExternal.class);
+	}
+}
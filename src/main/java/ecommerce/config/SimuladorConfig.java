@@ -0,0 +1,23 @@
+package ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ecommerce.external.fake.PropriedadesSimulacao;
+
+@Configuration
+public class SimuladorConfig {
+
+	@Bean
+	@ConfigurationProperties(prefix = "ecommerce.simulador.estoque")
+	public PropriedadesSimulacao simulacaoEstoque() {
+		return new PropriedadesSimulacao();
+	}
+
+	@Bean
+	@ConfigurationProperties(prefix = "ecommerce.simulador.pagamento")
+	public PropriedadesSimulacao simulacaoPagamento() {
+		return new PropriedadesSimulacao();
+	}
+}
@@ -0,0 +1,40 @@
+package ecommerce.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import ecommerce.controller.admissao.ControleAdmissaoInterceptor;
+import ecommerce.controller.admissao.PrazoInterceptor;
+import ecommerce.dto.compacto.CompactoHttpMessageConverter;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final ControleAdmissaoInterceptor controleAdmissao;
+	private final PrazoInterceptor prazo;
+
+	@Autowired
+	public WebConfig(ControleAdmissaoInterceptor controleAdmissao, PrazoInterceptor prazo) {
+		this.controleAdmissao = controleAdmissao;
+		this.prazo = prazo;
+	}
+
+	// O prazo começa a contar antes da admissão, na chegada da requisição
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(prazo).addPathPatterns("/finalizar");
+		registry.addInterceptor(controleAdmissao).addPathPatterns("/finalizar");
+	}
+
+	// Adicionado ao final para que o JSON continue sendo o padrão; o formato compacto só
+	// é usado quando o cliente o pede no Accept.
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new CompactoHttpMessageConverter());
+	}
+}
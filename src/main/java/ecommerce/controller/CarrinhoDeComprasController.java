@@ -0,0 +1,66 @@
+package ecommerce.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.dto.ErroDTO;
+import ecommerce.service.CarrinhoDeComprasService;
+
+@RestController
+@RequestMapping("/clientes/{clienteId}/carrinhos")
+public class CarrinhoDeComprasController {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final CarrinhoDeComprasService carrinhoService;
+	private final ObjectMapper objectMapper;
+
+	@Autowired
+	public CarrinhoDeComprasController(CarrinhoDeComprasService carrinhoService, ObjectMapper objectMapper) {
+		this.carrinhoService = carrinhoService;
+		this.objectMapper = objectMapper;
+	}
+
+	@GetMapping
+	public ResponseEntity<?> buscarHistorico(@PathVariable Long clienteId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate aposData,
+			@RequestParam(required = false) Long aposId, @RequestParam(defaultValue = "50") int tamanho) {
+		try {
+			return ResponseEntity.ok(carrinhoService.buscarHistorico(clienteId, aposData, aposId, tamanho));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErroDTO(e.getMessage()));
+		}
+	}
+
+	// Cursor ou tamanho que não convertem (data fora do ISO, id não numérico)
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ResponseEntity<ErroDTO> parametroInvalido(MethodArgumentTypeMismatchException e) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body(new ErroDTO("Parâmetro inválido: " + e.getName() + "."));
+	}
+
+	@GetMapping("/exportar")
+	public ResponseEntity<StreamingResponseBody> exportarHistorico(@PathVariable Long clienteId) {
+		StreamingResponseBody corpo = saida -> carrinhoService.exportarHistorico(clienteId, carrinho -> {
+			try {
+				saida.write(objectMapper.writeValueAsBytes(carrinho));
+				saida.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import ecommerce.dto.CompraDTO;
+import ecommerce.external.PrazoExpiradoException;
 import ecommerce.service.CompraService;
 
 @RestController
@@ -24,6 +25,8 @@ public class CompraController {
 		try {
 			CompraDTO compraDTO = compraService.finalizarCompra(carrinhoId, clienteId);
 			return ResponseEntity.ok(compraDTO);
+		} catch (PrazoExpiradoException e) {
+			return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new CompraDTO(false, null, e.getMessage()));
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CompraDTO(false, null, e.getMessage()));
 		} catch (IllegalStateException e) {
@@ -0,0 +1,54 @@
+package ecommerce.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ecommerce.service.promocao.MotorPromocoes;
+import ecommerce.service.promocao.Promocao;
+
+@RestController
+@RequestMapping("/promocoes")
+public class PromocoesController {
+
+	private final MotorPromocoes motorPromocoes;
+
+	@Autowired
+	public PromocoesController(MotorPromocoes motorPromocoes) {
+		this.motorPromocoes = motorPromocoes;
+	}
+
+	@GetMapping
+	public ResponseEntity<List<Promocao>> listar() {
+		return ResponseEntity.ok(motorPromocoes.listar());
+	}
+
+	// Troca o calendário inteiro de uma vez
+	@PutMapping
+	public ResponseEntity<List<Promocao>> substituir(@RequestBody List<Promocao> promocoes) {
+		try {
+			motorPromocoes.substituir(promocoes);
+			return ResponseEntity.ok(motorPromocoes.listar());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+	}
+
+	@PostMapping
+	public ResponseEntity<Promocao> salvar(@RequestBody Promocao promocao) {
+		try {
+			motorPromocoes.salvar(promocao);
+			return ResponseEntity.ok(promocao);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<Void> remover(@PathVariable String id) {
+		return motorPromocoes.remover(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+	}
+}
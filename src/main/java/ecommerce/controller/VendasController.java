@@ -0,0 +1,30 @@
+package ecommerce.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ecommerce.dto.AgregadosVendasDTO;
+import ecommerce.service.AgregadosVendas;
+
+@RestController
+@RequestMapping("/vendas")
+public class VendasController {
+
+	private final AgregadosVendas agregadosVendas;
+
+	@Autowired
+	public VendasController(AgregadosVendas agregadosVendas) {
+		this.agregadosVendas = agregadosVendas;
+	}
+
+	@GetMapping("/agregados")
+	public ResponseEntity<AgregadosVendasDTO> agregados(@RequestParam(defaultValue = "5m") String janela) {
+		try {
+			return ResponseEntity.ok(agregadosVendas.consultar(janela));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+	}
+}
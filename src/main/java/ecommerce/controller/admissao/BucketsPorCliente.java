@@ -0,0 +1,65 @@
+package ecommerce.controller.admissao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Mapa limitado de token buckets por cliente. Ao atingir o tamanho máximo, os
+ * buckets ociosos são descartados; se ainda assim não houver espaço, os novos
+ * clientes passam a dividir um bucket compartilhado.
+ */
+public class BucketsPorCliente {
+
+	private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+	private final AtomicBoolean limpando = new AtomicBoolean();
+
+	private final int tamanhoMaximo;
+	private final double capacidade;
+	private final double tokensPorSegundo;
+	private final long ociosidadeNanos;
+	private final TokenBucket bucketExcedente;
+
+	public BucketsPorCliente(int tamanhoMaximo, double capacidade, double tokensPorSegundo, long ociosidadeNanos) {
+		this.tamanhoMaximo = tamanhoMaximo;
+		this.capacidade = capacidade;
+		this.tokensPorSegundo = tokensPorSegundo;
+		this.ociosidadeNanos = ociosidadeNanos;
+		this.bucketExcedente = new TokenBucket(capacidade, tokensPorSegundo, System.nanoTime());
+	}
+
+	public long tentarConsumir(Long clienteId, long agoraNanos) {
+		return bucketDo(clienteId, agoraNanos).tentarConsumir(agoraNanos);
+	}
+
+	public int tamanho() {
+		return buckets.size();
+	}
+
+	private TokenBucket bucketDo(Long clienteId, long agoraNanos) {
+		TokenBucket bucket = buckets.get(clienteId);
+		if (bucket != null) {
+			return bucket;
+		}
+
+		if (buckets.size() >= tamanhoMaximo) {
+			removerOciosos(agoraNanos);
+			if (buckets.size() >= tamanhoMaximo) {
+				return bucketExcedente;
+			}
+		}
+
+		return buckets.computeIfAbsent(clienteId, id -> new TokenBucket(capacidade, tokensPorSegundo, agoraNanos));
+	}
+
+	private void removerOciosos(long agoraNanos) {
+		if (!limpando.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			buckets.values().removeIf(b -> agoraNanos - b.getUltimoAcesso() > ociosidadeNanos);
+		} finally {
+			limpando.set(false);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package ecommerce.controller.admissao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.dto.CompraDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class ControleAdmissaoInterceptor implements HandlerInterceptor {
+
+	private static final String ATRIBUTO_INICIO = ControleAdmissaoInterceptor.class.getName() + ".inicio";
+
+	private final LimiteConcorrenciaAdaptativo limiteConcorrencia;
+	private final BucketsPorCliente bucketsPorCliente;
+	private final ObjectMapper objectMapper;
+
+	private final Counter admitidas;
+	private final Counter rejeitadasPorCliente;
+	private final Counter rejeitadasPorConcorrencia;
+
+	public ControleAdmissaoInterceptor(LimiteConcorrenciaAdaptativo limiteConcorrencia,
+			BucketsPorCliente bucketsPorCliente, ObjectMapper objectMapper, MeterRegistry registry) {
+		this.limiteConcorrencia = limiteConcorrencia;
+		this.bucketsPorCliente = bucketsPorCliente;
+		this.objectMapper = objectMapper;
+
+		this.admitidas = Counter.builder("compra.admissao").tag("resultado", "admitida").register(registry);
+		this.rejeitadasPorCliente = Counter.builder("compra.admissao").tag("resultado", "rejeitada")
+				.tag("motivo", "cliente").register(registry);
+		this.rejeitadasPorConcorrencia = Counter.builder("compra.admissao").tag("resultado", "rejeitada")
+				.tag("motivo", "concorrencia").register(registry);
+		registry.gauge("compra.admissao.limite", limiteConcorrencia, LimiteConcorrenciaAdaptativo::getLimite);
+		registry.gauge("compra.admissao.em-andamento", limiteConcorrencia,
+				LimiteConcorrenciaAdaptativo::getEmAndamento);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+		long agora = System.nanoTime();
+
+		// Concorrência primeiro: uma rejeição por sobrecarga não consome a cota do cliente
+		if (!limiteConcorrencia.tentarAdquirir()) {
+			rejeitadasPorConcorrencia.increment();
+			rejeitar(response, TimeUnit.SECONDS.toNanos(1));
+			return false;
+		}
+
+		Long clienteId = lerClienteId(request);
+		if (clienteId != null) {
+			long esperaNanos = bucketsPorCliente.tentarConsumir(clienteId, agora);
+			if (esperaNanos > 0) {
+				limiteConcorrencia.devolver();
+				rejeitadasPorCliente.increment();
+				rejeitar(response, esperaNanos);
+				return false;
+			}
+		}
+
+		admitidas.increment();
+		request.setAttribute(ATRIBUTO_INICIO, agora);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+		if (inicio != null) {
+			limiteConcorrencia.liberar(System.nanoTime() - (Long) inicio);
+		}
+	}
+
+	private Long lerClienteId(HttpServletRequest request) {
+		String valor = request.getParameter("clienteId");
+		if (valor == null) {
+			return null;
+		}
+		try {
+			return Long.valueOf(valor);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private void rejeitar(HttpServletResponse response, long esperaNanos) throws Exception {
+		long segundos = Math.max(1L, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		objectMapper.writeValue(response.getOutputStream(),
+				new CompraDTO(false, null, "Muitas requisições. Tente novamente mais tarde."));
+	}
+}
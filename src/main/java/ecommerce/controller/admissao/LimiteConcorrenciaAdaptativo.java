@@ -0,0 +1,79 @@
+package ecommerce.controller.admissao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Limite de requisições simultâneas ajustado por AIMD: cresce 1/limite a cada
+ * resposta dentro da latência alvo e é reduzido multiplicativamente quando a
+ * latência observada ultrapassa o alvo. A redução acontece no máximo uma vez por
+ * RTT: respostas lentas de requisições iniciadas antes da última redução refletem
+ * o limite antigo e não reduzem de novo.
+ */
+public class LimiteConcorrenciaAdaptativo {
+
+	private final int limiteMinimo;
+	private final int limiteMaximo;
+	private final long latenciaAlvoNanos;
+	private final double fatorReducao;
+
+	private final AtomicInteger emAndamento = new AtomicInteger();
+	private volatile double limite;
+	private boolean reduzido;
+	private long ultimaReducaoNanos;
+
+	public LimiteConcorrenciaAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, long latenciaAlvoNanos,
+			double fatorReducao) {
+		this.limiteMinimo = limiteMinimo;
+		this.limiteMaximo = limiteMaximo;
+		this.latenciaAlvoNanos = latenciaAlvoNanos;
+		this.fatorReducao = fatorReducao;
+		this.limite = limiteInicial;
+	}
+
+	public boolean tentarAdquirir() {
+		while (true) {
+			int atual = emAndamento.get();
+			if (atual >= (int) limite) {
+				return false;
+			}
+			if (emAndamento.compareAndSet(atual, atual + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void liberar(long latenciaNanos) {
+		liberar(latenciaNanos, System.nanoTime());
+	}
+
+	public void liberar(long latenciaNanos, long agoraNanos) {
+		emAndamento.decrementAndGet();
+		ajustar(latenciaNanos, agoraNanos);
+	}
+
+	// Devolve a vaga de uma requisição rejeitada depois de adquiri-la, sem amostra de latência
+	public void devolver() {
+		emAndamento.decrementAndGet();
+	}
+
+	public int getLimite() {
+		return (int) limite;
+	}
+
+	public int getEmAndamento() {
+		return emAndamento.get();
+	}
+
+	private synchronized void ajustar(long latenciaNanos, long agoraNanos) {
+		if (latenciaNanos > latenciaAlvoNanos) {
+			long inicioNanos = agoraNanos - latenciaNanos;
+			if (!reduzido || inicioNanos - ultimaReducaoNanos >= 0) {
+				limite = Math.max(limiteMinimo, limite * fatorReducao);
+				reduzido = true;
+				ultimaReducaoNanos = agoraNanos;
+			}
+		} else {
+			limite = Math.min(limiteMaximo, limite + 1d / limite);
+		}
+	}
+}
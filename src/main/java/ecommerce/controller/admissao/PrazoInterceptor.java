@@ -0,0 +1,55 @@
+package ecommerce.controller.admissao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import ecommerce.external.Prazo;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Define o prazo da requisição a partir do cabeçalho X-Prazo-Ms (quanto tempo o
+ * cliente ainda espera) ou do padrão configurado, limitado ao máximo. As chamadas
+ * externas consultam o prazo por meio de Prazo.
+ */
+public class PrazoInterceptor implements HandlerInterceptor {
+
+	public static final String CABECALHO_PRAZO = "X-Prazo-Ms";
+
+	private final long prazoPadraoNanos;
+	private final long prazoMaximoNanos;
+
+	public PrazoInterceptor(long prazoPadraoNanos, long prazoMaximoNanos) {
+		if (prazoPadraoNanos <= 0 || prazoMaximoNanos < prazoPadraoNanos) {
+			throw new IllegalArgumentException("Prazos inválidos.");
+		}
+		this.prazoPadraoNanos = prazoPadraoNanos;
+		this.prazoMaximoNanos = prazoMaximoNanos;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Prazo.definirEm(Math.min(prazoMaximoNanos, lerPrazo(request)));
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Prazo.limpar();
+	}
+
+	private long lerPrazo(HttpServletRequest request) {
+		String valor = request.getHeader(CABECALHO_PRAZO);
+		if (valor == null) {
+			return prazoPadraoNanos;
+		}
+		try {
+			long prazoMs = Long.parseLong(valor.trim());
+			return prazoMs > 0 ? TimeUnit.MILLISECONDS.toNanos(prazoMs) : prazoPadraoNanos;
+		} catch (NumberFormatException e) {
+			return prazoPadraoNanos;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package ecommerce.controller.admissao;
+
+public class TokenBucket {
+
+	private final double capacidade;
+	private final double tokensPorNano;
+
+	private double tokens;
+	private long ultimaRecarga;
+	private volatile long ultimoAcesso;
+
+	public TokenBucket(double capacidade, double tokensPorSegundo, long agoraNanos) {
+		this.capacidade = capacidade;
+		this.tokensPorNano = tokensPorSegundo / 1_000_000_000d;
+		this.tokens = capacidade;
+		this.ultimaRecarga = agoraNanos;
+		this.ultimoAcesso = agoraNanos;
+	}
+
+	// Retorna 0 quando o token foi consumido, ou quantos nanos faltam para o próximo token
+	public synchronized long tentarConsumir(long agoraNanos) {
+		ultimoAcesso = agoraNanos;
+		recarregar(agoraNanos);
+
+		if (tokens >= 1d) {
+			tokens -= 1d;
+			return 0L;
+		}
+
+		return (long) Math.ceil((1d - tokens) / tokensPorNano);
+	}
+
+	public long getUltimoAcesso() {
+		return ultimoAcesso;
+	}
+
+	private void recarregar(long agoraNanos) {
+		long decorrido = agoraNanos - ultimaRecarga;
+		if (decorrido > 0) {
+			tokens = Math.min(capacidade, tokens + decorrido * tokensPorNano);
+			ultimaRecarga = agoraNanos;
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package ecommerce.dto;
+
+import java.util.Map;
+
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+public record AgregadosVendasDTO(String janela, Map<TipoProduto, MetricasVendasDTO> porTipoProduto,
+		Map<TipoCliente, MetricasVendasDTO> porTipoCliente) {
+}
@@ -0,0 +1,15 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Projeção do histórico: itens e total vêm agregados da consulta, sem carregar a coleção de itens
+public record CarrinhoResumoDTO(Long id, LocalDate data, Long itens, BigDecimal total) {
+
+	public CarrinhoResumoDTO {
+		// Carrinho sem itens: o left join soma nulo
+		if (total == null) {
+			total = BigDecimal.ZERO;
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record MetricasVendasDTO(BigDecimal receita, Long unidades, BigDecimal frete, BigDecimal desconto) {
+}
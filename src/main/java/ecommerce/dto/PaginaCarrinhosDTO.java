@@ -0,0 +1,7 @@
+package ecommerce.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PaginaCarrinhosDTO(List<CarrinhoResumoDTO> carrinhos, LocalDate proximaData, Long proximoId) {
+}
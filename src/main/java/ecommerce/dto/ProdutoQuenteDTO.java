@@ -0,0 +1,4 @@
+package ecommerce.dto;
+
+public record ProdutoQuenteDTO(Long produtoId, long quantidadeEstimada) {
+}
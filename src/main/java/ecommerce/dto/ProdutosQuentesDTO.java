@@ -0,0 +1,7 @@
+package ecommerce.dto;
+
+import java.util.List;
+
+public record ProdutosQuentesDTO(int janelaMinutos, List<ProdutoQuenteDTO> baixas,
+		List<ProdutoQuenteDTO> consultas) {
+}
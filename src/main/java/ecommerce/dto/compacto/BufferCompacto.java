@@ -0,0 +1,113 @@
+package ecommerce.dto.compacto;
+
+import java.util.Arrays;
+
+/*
+ * Buffer de escrita do formato compacto. Cada thread reutiliza o seu próprio
+ * buffer; buffers que crescem além do limite são descartados após o uso para
+ * não reter memória.
+ */
+public class BufferCompacto {
+
+	private static final int TAMANHO_INICIAL = 512;
+	private static final int TAMANHO_MAXIMO_RETIDO = 64 * 1024;
+
+	private static final ThreadLocal<BufferCompacto> LOCAL = ThreadLocal.withInitial(BufferCompacto::new);
+
+	private byte[] dados = new byte[TAMANHO_INICIAL];
+	private int tamanho;
+
+	public static BufferCompacto local() {
+		BufferCompacto buffer = LOCAL.get();
+		if (buffer.dados.length > TAMANHO_MAXIMO_RETIDO) {
+			buffer.dados = new byte[TAMANHO_INICIAL];
+		}
+		buffer.tamanho = 0;
+		return buffer;
+	}
+
+	public byte[] dados() {
+		return dados;
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public byte[] copiar() {
+		return Arrays.copyOf(dados, tamanho);
+	}
+
+	public void escreverByte(int valor) {
+		garantir(1);
+		dados[tamanho++] = (byte) valor;
+	}
+
+	public void escreverVarint(long valor) {
+		garantir(10);
+		while ((valor & ~0x7FL) != 0) {
+			dados[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+			valor >>>= 7;
+		}
+		dados[tamanho++] = (byte) valor;
+	}
+
+	public void escreverLong(long valor) {
+		escreverVarint((valor << 1) ^ (valor >> 63));
+	}
+
+	// Codifica em UTF-8 diretamente no buffer, sem criar o byte[] intermediário de getBytes
+	public void escreverTexto(String texto) {
+		escreverVarint(tamanhoUtf8(texto));
+		int n = texto.length();
+		garantir(n * 3);
+		for (int i = 0; i < n; i++) {
+			char c = texto.charAt(i);
+			if (c < 0x80) {
+				dados[tamanho++] = (byte) c;
+			} else if (c < 0x800) {
+				dados[tamanho++] = (byte) (0xC0 | (c >> 6));
+				dados[tamanho++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, texto.charAt(++i));
+				dados[tamanho++] = (byte) (0xF0 | (codePoint >> 18));
+				dados[tamanho++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				dados[tamanho++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				dados[tamanho++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				dados[tamanho++] = (byte) '?';
+			} else {
+				dados[tamanho++] = (byte) (0xE0 | (c >> 12));
+				dados[tamanho++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				dados[tamanho++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	private static int tamanhoUtf8(String texto) {
+		int total = 0;
+		int n = texto.length();
+		for (int i = 0; i < n; i++) {
+			char c = texto.charAt(i);
+			if (c < 0x80) {
+				total += 1;
+			} else if (c < 0x800) {
+				total += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+				total += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				total += 1;
+			} else {
+				total += 3;
+			}
+		}
+		return total;
+	}
+
+	private void garantir(int adicional) {
+		if (tamanho + adicional > dados.length) {
+			dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + adicional));
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package ecommerce.dto.compacto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ecommerce.dto.CompraDTO;
+import ecommerce.dto.DisponibilidadeDTO;
+
+/*
+ * Formato binário compacto para CompraDTO e DisponibilidadeDTO.
+ *
+ * Cabeçalho: versão (1 byte) e tipo (1 byte), seguidos de um byte de flags que
+ * indica quais campos estão presentes e o valor dos booleanos. Números são
+ * varints em zigzag e textos são o tamanho em varint seguido dos bytes UTF-8.
+ */
+public final class CodecCompacto {
+
+	public static final int VERSAO = 1;
+
+	private static final int TIPO_COMPRA = 1;
+	private static final int TIPO_DISPONIBILIDADE = 2;
+
+	private static final int BOOLEANO_PRESENTE = 1;
+	private static final int BOOLEANO_VERDADEIRO = 1 << 1;
+	private static final int SEGUNDO_CAMPO_PRESENTE = 1 << 2;
+	private static final int TERCEIRO_CAMPO_PRESENTE = 1 << 3;
+
+	private CodecCompacto() {
+	}
+
+	public static boolean suporta(Class<?> clazz) {
+		return clazz == CompraDTO.class || clazz == DisponibilidadeDTO.class;
+	}
+
+	public static void codificar(Object objeto, BufferCompacto buffer) {
+		if (objeto instanceof CompraDTO compra) {
+			codificarCompra(compra, buffer);
+		} else if (objeto instanceof DisponibilidadeDTO disponibilidade) {
+			codificarDisponibilidade(disponibilidade, buffer);
+		} else {
+			throw new IllegalArgumentException("Tipo não suportado pelo formato compacto: " + objeto.getClass());
+		}
+	}
+
+	public static <T> T decodificar(Class<T> clazz, byte[] dados, int inicio, int tamanho) {
+		LeitorCompacto leitor = new LeitorCompacto(dados, inicio, tamanho);
+		int versao = leitor.lerByte();
+		if (versao != VERSAO) {
+			throw new IllegalArgumentException("Versão do formato compacto não suportada: " + versao);
+		}
+
+		int tipo = leitor.lerByte();
+		Object objeto;
+		if (tipo == TIPO_COMPRA && clazz == CompraDTO.class) {
+			objeto = decodificarCompra(leitor);
+		} else if (tipo == TIPO_DISPONIBILIDADE && clazz == DisponibilidadeDTO.class) {
+			objeto = decodificarDisponibilidade(leitor);
+		} else {
+			throw new IllegalArgumentException("Conteúdo compacto não corresponde a " + clazz.getSimpleName() + ".");
+		}
+		return clazz.cast(objeto);
+	}
+
+	private static void codificarCompra(CompraDTO compra, BufferCompacto buffer) {
+		buffer.escreverByte(VERSAO);
+		buffer.escreverByte(TIPO_COMPRA);
+		buffer.escreverByte(flagsBooleano(compra.sucesso())
+				| (compra.transacaoPagamentoId() != null ? SEGUNDO_CAMPO_PRESENTE : 0)
+				| (compra.mensagem() != null ? TERCEIRO_CAMPO_PRESENTE : 0));
+		if (compra.transacaoPagamentoId() != null) {
+			buffer.escreverLong(compra.transacaoPagamentoId());
+		}
+		if (compra.mensagem() != null) {
+			buffer.escreverTexto(compra.mensagem());
+		}
+	}
+
+	private static CompraDTO decodificarCompra(LeitorCompacto leitor) {
+		int flags = leitor.lerByte();
+		Long transacaoId = (flags & SEGUNDO_CAMPO_PRESENTE) != 0 ? leitor.lerLong() : null;
+		String mensagem = (flags & TERCEIRO_CAMPO_PRESENTE) != 0 ? leitor.lerTexto() : null;
+		return new CompraDTO(booleano(flags), transacaoId, mensagem);
+	}
+
+	private static void codificarDisponibilidade(DisponibilidadeDTO disponibilidade, BufferCompacto buffer) {
+		List<Long> ids = disponibilidade.idsProdutosIndisponiveis();
+
+		buffer.escreverByte(VERSAO);
+		buffer.escreverByte(TIPO_DISPONIBILIDADE);
+		buffer.escreverByte(flagsBooleano(disponibilidade.disponivel()) | (ids != null ? SEGUNDO_CAMPO_PRESENTE : 0));
+		if (ids != null) {
+			buffer.escreverVarint(ids.size());
+			for (int i = 0; i < ids.size(); i++) {
+				Long id = ids.get(i);
+				if (id == null) {
+					throw new IllegalArgumentException("Ids de produtos nulos não são suportados pelo formato compacto.");
+				}
+				buffer.escreverLong(id);
+			}
+		}
+	}
+
+	private static DisponibilidadeDTO decodificarDisponibilidade(LeitorCompacto leitor) {
+		int flags = leitor.lerByte();
+		List<Long> ids = null;
+		if ((flags & SEGUNDO_CAMPO_PRESENTE) != 0) {
+			long quantidade = leitor.lerVarint();
+			if (quantidade < 0 || quantidade > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Quantidade de ids inválida no conteúdo compacto.");
+			}
+			ids = new ArrayList<>((int) Math.min(quantidade, 1024));
+			for (long i = 0; i < quantidade; i++) {
+				ids.add(leitor.lerLong());
+			}
+		}
+		return new DisponibilidadeDTO(booleano(flags), ids);
+	}
+
+	private static int flagsBooleano(Boolean valor) {
+		if (valor == null) {
+			return 0;
+		}
+		return BOOLEANO_PRESENTE | (valor ? BOOLEANO_VERDADEIRO : 0);
+	}
+
+	private static Boolean booleano(int flags) {
+		if ((flags & BOOLEANO_PRESENTE) == 0) {
+			return null;
+		}
+		return (flags & BOOLEANO_VERDADEIRO) != 0;
+	}
+}
@@ -0,0 +1,41 @@
+package ecommerce.dto.compacto;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+public class CompactoHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+	public static final MediaType TIPO_COMPACTO = MediaType.parseMediaType("application/x-ecommerce-compacto");
+
+	public CompactoHttpMessageConverter() {
+		super(TIPO_COMPACTO);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return CodecCompacto.suporta(clazz);
+	}
+
+	@Override
+	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+		byte[] dados = inputMessage.getBody().readAllBytes();
+		try {
+			return CodecCompacto.decodificar(clazz, dados, 0, dados.length);
+		} catch (IllegalArgumentException e) {
+			throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+		}
+	}
+
+	@Override
+	protected void writeInternal(Object objeto, HttpOutputMessage outputMessage) throws IOException {
+		BufferCompacto buffer = BufferCompacto.local();
+		CodecCompacto.codificar(objeto, buffer);
+		outputMessage.getHeaders().setContentLength(buffer.tamanho());
+		outputMessage.getBody().write(buffer.dados(), 0, buffer.tamanho());
+	}
+}
@@ -0,0 +1,50 @@
+package ecommerce.dto.compacto;
+
+import java.nio.charset.StandardCharsets;
+
+public class LeitorCompacto {
+
+	private final byte[] dados;
+	private final int fim;
+	private int posicao;
+
+	public LeitorCompacto(byte[] dados, int inicio, int tamanho) {
+		this.dados = dados;
+		this.posicao = inicio;
+		this.fim = inicio + tamanho;
+	}
+
+	public int lerByte() {
+		if (posicao >= fim) {
+			throw new IllegalArgumentException("Conteúdo compacto truncado.");
+		}
+		return dados[posicao++] & 0xFF;
+	}
+
+	public long lerVarint() {
+		long valor = 0L;
+		for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+			int b = lerByte();
+			valor |= (long) (b & 0x7F) << deslocamento;
+			if ((b & 0x80) == 0) {
+				return valor;
+			}
+		}
+		throw new IllegalArgumentException("Varint inválido no conteúdo compacto.");
+	}
+
+	public long lerLong() {
+		long valor = lerVarint();
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	public String lerTexto() {
+		long tamanho = lerVarint();
+		if (tamanho < 0 || tamanho > fim - posicao) {
+			throw new IllegalArgumentException("Conteúdo compacto truncado.");
+		}
+		String texto = new String(dados, posicao, (int) tamanho, StandardCharsets.UTF_8);
+		posicao += (int) tamanho;
+		return texto;
+	}
+}
@@ -0,0 +1,55 @@
+package ecommerce.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+@Entity
+@Table(name = "estoque_produto")
+public class EstoqueProduto {
+
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+
+    @Version // Incrementada a cada baixa; usada na concorrência otimista entre nós
+    @Column(name = "versao")
+    private Long versao;
+
+    public EstoqueProduto() {}
+
+    public EstoqueProduto(Long produtoId, Long quantidade) {
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+    }
+
+    // Getters e Setters
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public void setProdutoId(Long produtoId) {
+        this.produtoId = produtoId;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+}
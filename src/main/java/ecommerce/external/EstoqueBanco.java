@@ -0,0 +1,236 @@
+package ecommerce.external;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.entity.EstoqueProduto;
+import ecommerce.repository.EstoqueProdutoRepository;
+
+/*
+ * Estoque persistido no banco compartilhado pelos nós da aplicação. A baixa lê
+ * as versões das linhas e envia, em um único batch, um update condicional por
+ * produto (versão e quantidade). Se alguma linha não for atualizada, outro nó
+ * alterou o produto no meio do caminho: as linhas já baixadas são devolvidas e a
+ * tentativa é repetida. Cada tentativa verifica o prazo da requisição e as
+ * consultas levam o tempo restante como timeout do JDBC (em segundos, arredondado
+ * para cima), para que uma linha travada por outro nó não prenda a compra além
+ * do prazo.
+ */
+@Service
+@ConditionalOnProperty(name = "ecommerce.estoque.modo", havingValue = "banco")
+public class EstoqueBanco implements IEstoqueExternal {
+
+	private static final String SQL_BAIXA = "update estoque_produto set quantidade = quantidade - ?, versao = versao + 1 "
+			+ "where produto_id = ? and versao = ? and quantidade >= ?";
+
+	private static final String SQL_DEVOLUCAO = "update estoque_produto set quantidade = quantidade + ?, versao = versao + 1 "
+			+ "where produto_id = ?";
+
+	private enum Resultado {
+		SUCESSO, INDISPONIVEL, CONFLITO
+	}
+
+	private record Linha(long quantidade, long versao) {
+	}
+
+	private final EstoqueProdutoRepository repository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transacao;
+	private final int maxTentativas;
+
+	@Autowired
+	public EstoqueBanco(EstoqueProdutoRepository repository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager,
+			@Value("${ecommerce.estoque.banco.max-tentativas:5}") int maxTentativas) {
+		if (maxTentativas < 1) {
+			throw new IllegalArgumentException("O número de tentativas deve ser positivo.");
+		}
+		this.repository = repository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.maxTentativas = maxTentativas;
+
+		/*
+		 * REQUIRED: dentro da compra as tentativas participam da transação dela (sem
+		 * segunda conexão nem savepoint); fora dela, cada tentativa é uma transação
+		 * própria. Um conflito não marca a transação para rollback: as linhas já
+		 * atualizadas na tentativa são devolvidas antes da próxima.
+		 */
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		// Ids agregados e ordenados: todos os nós travam as linhas na mesma ordem
+		TreeMap<Long, Long> pedidos = agregar(produtosIds, produtosQuantidades);
+		if (pedidos.isEmpty()) {
+			return new EstoqueBaixaDTO(true);
+		}
+
+		boolean dentroDaCompra = TransactionSynchronizationManager.isActualTransactionActive();
+		for (int tentativa = 1; tentativa <= maxTentativas; tentativa++) {
+			Prazo.verificar();
+			Resultado resultado;
+			try {
+				resultado = transacao.execute(status -> tentarBaixa(pedidos));
+			} catch (QueryTimeoutException e) {
+				throw prazoEsgotado(e);
+			} catch (ConcurrencyFailureException e) {
+				if (dentroDaCompra) {
+					// A transação da compra já foi marcada para rollback, que desfaz esta baixa
+					throw e;
+				}
+				// Timeout de lock ou deadlock com outro nó: a transação da tentativa já foi desfeita
+				resultado = Resultado.CONFLITO;
+			}
+
+			if (resultado == Resultado.SUCESSO) {
+				return new EstoqueBaixaDTO(true);
+			}
+			if (resultado == Resultado.INDISPONIVEL) {
+				return new EstoqueBaixaDTO(false);
+			}
+			recuar(tentativa);
+		}
+
+		return new EstoqueBaixaDTO(false);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		TreeMap<Long, Long> pedidos = agregar(produtosIds, produtosQuantidades);
+		if (pedidos.isEmpty()) {
+			return new DisponibilidadeDTO(true, List.of());
+		}
+		Prazo.verificar();
+
+		Map<Long, Linha> linhas;
+		try {
+			linhas = lerLinhas(pedidos);
+		} catch (QueryTimeoutException e) {
+			throw prazoEsgotado(e);
+		}
+
+		List<Long> produtosIndisponiveis = new ArrayList<>();
+		for (Map.Entry<Long, Long> pedido : pedidos.entrySet()) {
+			Linha linha = linhas.get(pedido.getKey());
+			if (linha == null || linha.quantidade() < pedido.getValue()) {
+				produtosIndisponiveis.add(pedido.getKey());
+			}
+		}
+
+		return new DisponibilidadeDTO(produtosIndisponiveis.isEmpty(), produtosIndisponiveis);
+	}
+
+	// Carga do estoque (testes, scripts de benchmark e integrações de reposição)
+	@Transactional
+	public void definirQuantidade(Long produtoId, Long quantidade) {
+		if (produtoId == null || quantidade == null || quantidade < 0) {
+			throw new IllegalArgumentException("Produto e quantidade não negativa são obrigatórios.");
+		}
+		EstoqueProduto produto = repository.findById(produtoId).orElseGet(() -> new EstoqueProduto(produtoId, 0L));
+		produto.setQuantidade(quantidade);
+		repository.save(produto);
+	}
+
+	private Resultado tentarBaixa(TreeMap<Long, Long> pedidos) {
+		Map<Long, Linha> linhas = lerLinhas(pedidos);
+
+		List<Object[]> parametros = new ArrayList<>(pedidos.size());
+		for (Map.Entry<Long, Long> pedido : pedidos.entrySet()) {
+			Linha linha = linhas.get(pedido.getKey());
+			if (linha == null || linha.quantidade() < pedido.getValue()) {
+				return Resultado.INDISPONIVEL;
+			}
+			parametros.add(new Object[] { pedido.getValue(), pedido.getKey(), linha.versao(), pedido.getValue() });
+		}
+
+		JdbcTemplate jdbc = jdbcComPrazo();
+		int[] atualizados = jdbc.batchUpdate(SQL_BAIXA, parametros);
+		List<Object[]> devolucoes = new ArrayList<>();
+		for (int i = 0; i < atualizados.length; i++) {
+			// Só 1 confirma a baixa da linha; drivers que devolvem SUCCESS_NO_INFO contam como conflito
+			if (atualizados[i] == 1) {
+				Object[] baixa = parametros.get(i);
+				devolucoes.add(new Object[] { baixa[0], baixa[1] });
+			}
+		}
+		if (devolucoes.size() == atualizados.length) {
+			return Resultado.SUCESSO;
+		}
+
+		// As linhas baixadas continuam travadas por esta transação: a devolução é exata
+		if (!devolucoes.isEmpty()) {
+			jdbc.batchUpdate(SQL_DEVOLUCAO, devolucoes);
+		}
+		return Resultado.CONFLITO;
+	}
+
+	private Map<Long, Linha> lerLinhas(TreeMap<Long, Long> pedidos) {
+		String marcadores = String.join(",", Collections.nCopies(pedidos.size(), "?"));
+		String sql = "select produto_id, quantidade, versao from estoque_produto where produto_id in (" + marcadores + ")";
+
+		Map<Long, Linha> linhas = new HashMap<>();
+		jdbcComPrazo().query(sql, rs -> {
+			linhas.put(rs.getLong("produto_id"), new Linha(rs.getLong("quantidade"), rs.getLong("versao")));
+		}, pedidos.keySet().toArray());
+		return linhas;
+	}
+
+	// O JdbcTemplate do contexto é compartilhado: com prazo, cada chamada usa uma cópia com o próprio timeout
+	private JdbcTemplate jdbcComPrazo() {
+		long restante = Prazo.restanteNanos();
+		if (restante == Long.MAX_VALUE) {
+			return jdbcTemplate;
+		}
+		JdbcTemplate comPrazo = new JdbcTemplate(jdbcTemplate.getDataSource());
+		comPrazo.setExceptionTranslator(jdbcTemplate.getExceptionTranslator());
+		comPrazo.setQueryTimeout((int) Math.max(1L, Math.min(Integer.MAX_VALUE,
+				(restante + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+		return comPrazo;
+	}
+
+	private static PrazoExpiradoException prazoEsgotado(QueryTimeoutException causa) {
+		return new PrazoExpiradoException("Prazo da requisição esgotado no estoque.", causa);
+	}
+
+	private static TreeMap<Long, Long> agregar(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		if (produtosIds == null || produtosQuantidades == null || produtosIds.size() != produtosQuantidades.size()) {
+			throw new IllegalArgumentException("Listas de produtos e quantidades inconsistentes.");
+		}
+		TreeMap<Long, Long> pedidos = new TreeMap<>();
+		for (int i = 0; i < produtosIds.size(); i++) {
+			pedidos.merge(produtosIds.get(i), produtosQuantidades.get(i), Long::sum);
+		}
+		return pedidos;
+	}
+
+	// Espera aleatória crescente para os nós em conflito não colidirem de novo
+	private static void recuar(int tentativa) {
+		long limiteMicros = 200L << Math.min(tentativa, 6);
+		LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(limiteMicros)));
+	}
+}
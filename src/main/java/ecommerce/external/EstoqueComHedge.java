@@ -0,0 +1,184 @@
+package ecommerce.external;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.monitoramento.PercentilLatencia;
+
+/*
+ * Hedge da consulta de disponibilidade, que é somente leitura e idempotente: se a
+ * primeira chamada não responder até o percentil configurado das latências
+ * recentes, uma segunda é enviada e vale a primeira resposta bem-sucedida. O
+ * orçamento limita os hedges a uma fração das consultas, para que uma lentidão
+ * geral do estoque não dobre a carga sobre ele. As duas chamadas levam o prazo da
+ * requisição. A baixa não é idempotente e passa direto.
+ */
+public class EstoqueComHedge implements IEstoqueExternal {
+
+	private static final long ESCALA_ORCAMENTO = 1_000L;
+
+	private final IEstoqueExternal estoque;
+	private final Executor executor;
+	private final PercentilLatencia latencias;
+	private final long atrasoMinimoNanos;
+
+	private final long creditoPorConsulta;
+	private final long creditoMaximo;
+	private final AtomicLong credito = new AtomicLong();
+
+	private final LongAdder hedgesEnviados = new LongAdder();
+	private final LongAdder hedgesVencedores = new LongAdder();
+
+	public EstoqueComHedge(IEstoqueExternal estoque, Executor executor, double percentil, long atrasoInicialNanos,
+			long atrasoMinimoNanos, double taxaMaximaHedge) {
+		if (taxaMaximaHedge < 0 || taxaMaximaHedge > 1) {
+			throw new IllegalArgumentException("A taxa de hedge deve estar entre 0 e 1.");
+		}
+		this.estoque = estoque;
+		this.executor = executor;
+		this.latencias = new PercentilLatencia(1024, percentil, 64, atrasoInicialNanos);
+		this.atrasoMinimoNanos = atrasoMinimoNanos;
+		this.creditoPorConsulta = Math.round(taxaMaximaHedge * ESCALA_ORCAMENTO);
+		// Permite uma pequena rajada de hedges depois de um período tranquilo
+		this.creditoMaximo = 10 * ESCALA_ORCAMENTO;
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return estoque.darBaixa(produtosIds, produtosQuantidades);
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		Prazo.verificar();
+		creditar();
+		Supplier<DisponibilidadeDTO> chamada = Prazo
+				.propagar(() -> medir(() -> estoque.verificarDisponibilidade(produtosIds, produtosQuantidades)));
+
+		CompletableFuture<DisponibilidadeDTO> primaria;
+		try {
+			primaria = CompletableFuture.supplyAsync(chamada, executor);
+		} catch (RejectedExecutionException e) {
+			// Executor saturado: chamada direta, sem hedge
+			return chamada.get();
+		}
+
+		long atrasoHedge = getAtrasoHedgeNanos();
+		if (Prazo.restanteNanos() <= atrasoHedge) {
+			// O prazo acaba antes do momento do hedge: uma segunda chamada não ajudaria
+			return aguardar(primaria);
+		}
+
+		try {
+			return primaria.get(atrasoHedge, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			// Sem resposta até o percentil: segue para o hedge
+		} catch (ExecutionException e) {
+			throw desembrulhar(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Consulta ao estoque interrompida.", e);
+		}
+
+		CompletableFuture<DisponibilidadeDTO> resposta = primaria;
+		if (Prazo.restanteNanos() > 0 && !primaria.isDone() && consumirCredito()) {
+			try {
+				CompletableFuture<DisponibilidadeDTO> hedge = CompletableFuture.supplyAsync(chamada, executor);
+				hedgesEnviados.increment();
+				hedge.thenRun(() -> {
+					if (!primaria.isDone()) {
+						hedgesVencedores.increment();
+					}
+				});
+				resposta = primeiroSucesso(primaria, hedge);
+			} catch (RejectedExecutionException e) {
+				// Sem thread para o hedge: aguarda só a primeira chamada
+			}
+		}
+
+		return aguardar(resposta);
+	}
+
+	public long getHedgesEnviados() {
+		return hedgesEnviados.sum();
+	}
+
+	public long getHedgesVencedores() {
+		return hedgesVencedores.sum();
+	}
+
+	public long getAtrasoHedgeNanos() {
+		return Math.max(atrasoMinimoNanos, latencias.getValorNanos());
+	}
+
+	private DisponibilidadeDTO medir(Supplier<DisponibilidadeDTO> chamada) {
+		long inicio = System.nanoTime();
+		DisponibilidadeDTO resultado = chamada.get();
+		latencias.registrar(System.nanoTime() - inicio);
+		return resultado;
+	}
+
+	private DisponibilidadeDTO aguardar(CompletableFuture<DisponibilidadeDTO> resposta) {
+		try {
+			return Prazo.aguardar(resposta);
+		} catch (TimeoutException e) {
+			// As chamadas em voo terminam sozinhas no prazo que receberam
+			throw new PrazoExpiradoException("Prazo da requisição esgotado na consulta ao estoque.");
+		} catch (ExecutionException e) {
+			throw desembrulhar(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Consulta ao estoque interrompida.", e);
+		}
+	}
+
+	// Completa com a primeira resposta bem-sucedida, ou com a última falha se as duas falharem
+	private static <T> CompletableFuture<T> primeiroSucesso(CompletableFuture<T> a, CompletableFuture<T> b) {
+		CompletableFuture<T> resultado = new CompletableFuture<>();
+		AtomicInteger falhas = new AtomicInteger();
+		for (CompletableFuture<T> chamada : List.of(a, b)) {
+			chamada.whenComplete((valor, erro) -> {
+				if (erro == null) {
+					resultado.complete(valor);
+				} else if (falhas.incrementAndGet() == 2) {
+					resultado.completeExceptionally(erro);
+				}
+			});
+		}
+		return resultado;
+	}
+
+	private void creditar() {
+		credito.getAndUpdate(atual -> Math.min(creditoMaximo, atual + creditoPorConsulta));
+	}
+
+	private boolean consumirCredito() {
+		long atual;
+		do {
+			atual = credito.get();
+			if (atual < ESCALA_ORCAMENTO) {
+				return false;
+			}
+		} while (!credito.compareAndSet(atual, atual - ESCALA_ORCAMENTO));
+		return true;
+	}
+
+	private static RuntimeException desembrulhar(ExecutionException e) {
+		Throwable causa = e.getCause();
+		if (causa instanceof RuntimeException runtime) {
+			return runtime;
+		}
+		return new IllegalStateException("Falha na consulta ao estoque.", causa);
+	}
+}
@@ -0,0 +1,30 @@
+package ecommerce.external;
+
+import java.util.List;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.monitoramento.ProdutosQuentes;
+
+public class EstoqueMonitorado implements IEstoqueExternal {
+
+	private final IEstoqueExternal estoque;
+	private final ProdutosQuentes produtosQuentes;
+
+	public EstoqueMonitorado(IEstoqueExternal estoque, ProdutosQuentes produtosQuentes) {
+		this.estoque = estoque;
+		this.produtosQuentes = produtosQuentes;
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		produtosQuentes.registrarBaixa(produtosIds, produtosQuantidades);
+		return estoque.darBaixa(produtosIds, produtosQuantidades);
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		produtosQuentes.registrarConsulta(produtosIds, produtosQuantidades);
+		return estoque.verificarDisponibilidade(produtosIds, produtosQuantidades);
+	}
+}
@@ -0,0 +1,92 @@
+package ecommerce.external;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ * Prazo da requisição em andamento, em System.nanoTime(). É definido na entrada
+ * do /finalizar e consultado pelas chamadas externas para que nada seja feito
+ * depois que o cliente desistiu. Tarefas enviadas a outras threads levam o prazo
+ * junto por meio de propagar().
+ */
+public final class Prazo {
+
+	private static final long SEM_PRAZO = Long.MAX_VALUE;
+
+	private static final ThreadLocal<Long> ATUAL = new ThreadLocal<>();
+
+	private Prazo() {
+	}
+
+	// Restaura o prazo anterior ao ser fechado (try-with-resources)
+	public interface Escopo extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	public static Escopo definir(long limiteNanos) {
+		Long anterior = ATUAL.get();
+		ATUAL.set(limiteNanos);
+		return () -> restaurar(anterior);
+	}
+
+	public static Escopo definirEm(long duracaoNanos) {
+		return definir(System.nanoTime() + duracaoNanos);
+	}
+
+	// Compensações (como cancelar um pagamento) precisam rodar mesmo após o prazo
+	public static Escopo suspender() {
+		Long anterior = ATUAL.get();
+		ATUAL.remove();
+		return () -> restaurar(anterior);
+	}
+
+	public static void limpar() {
+		ATUAL.remove();
+	}
+
+	public static boolean definido() {
+		return ATUAL.get() != null;
+	}
+
+	// Tempo restante; Long.MAX_VALUE quando não há prazo definido
+	public static long restanteNanos() {
+		Long limite = ATUAL.get();
+		return limite == null ? SEM_PRAZO : limite - System.nanoTime();
+	}
+
+	public static void verificar() {
+		if (restanteNanos() <= 0) {
+			throw new PrazoExpiradoException("Prazo da requisição esgotado.");
+		}
+	}
+
+	// Espera o resultado no tempo restante; sem prazo definido, espera sem limite
+	public static <T> T aguardar(Future<T> futuro) throws InterruptedException, ExecutionException, TimeoutException {
+		long restante = restanteNanos();
+		return restante == SEM_PRAZO ? futuro.get() : futuro.get(Math.max(0L, restante), TimeUnit.NANOSECONDS);
+	}
+
+	public static <T> Supplier<T> propagar(Supplier<T> tarefa) {
+		Long limite = ATUAL.get();
+		if (limite == null) {
+			return tarefa;
+		}
+		return () -> {
+			try (Escopo escopo = definir(limite)) {
+				return tarefa.get();
+			}
+		};
+	}
+
+	private static void restaurar(Long anterior) {
+		if (anterior == null) {
+			ATUAL.remove();
+		} else {
+			ATUAL.set(anterior);
+		}
+	}
+}
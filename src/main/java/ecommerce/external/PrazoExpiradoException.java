@@ -0,0 +1,14 @@
+package ecommerce.external;
+
+// Lançada antes de a operação externa ser executada, ou quando ela é cancelada dentro de uma
+// transação que é desfeita: nada foi alterado do outro lado
+public class PrazoExpiradoException extends RuntimeException {
+
+	public PrazoExpiradoException(String mensagem) {
+		super(mensagem);
+	}
+
+	public PrazoExpiradoException(String mensagem, Throwable causa) {
+		super(mensagem, causa);
+	}
+}
@@ -0,0 +1,56 @@
+package ecommerce.external.fake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@FunctionalInterface
+public interface DistribuicaoLatencia {
+
+	long amostrarNanos(ThreadLocalRandom aleatorio);
+
+	static DistribuicaoLatencia nenhuma() {
+		return aleatorio -> 0L;
+	}
+
+	static DistribuicaoLatencia fixa(double ms) {
+		long nanos = nanos(ms);
+		return aleatorio -> nanos;
+	}
+
+	static DistribuicaoLatencia normal(double mediaMs, double desvioMs) {
+		return aleatorio -> Math.max(0L, nanos(mediaMs + desvioMs * aleatorio.nextGaussian()));
+	}
+
+	static DistribuicaoLatencia logNormal(double medianaMs, double sigma) {
+		return aleatorio -> nanos(medianaMs * Math.exp(sigma * aleatorio.nextGaussian()));
+	}
+
+	// Reproduz latências gravadas, sorteando uma amostra a cada chamada
+	static DistribuicaoLatencia histograma(long[] amostrasNanos) {
+		if (amostrasNanos.length == 0) {
+			throw new IllegalArgumentException("Histograma de latência sem amostras.");
+		}
+		long[] amostras = amostrasNanos.clone();
+		return aleatorio -> amostras[aleatorio.nextInt(amostras.length)];
+	}
+
+	// Arquivo com uma latência em milissegundos por linha; linhas vazias e iniciadas por # são ignoradas
+	static DistribuicaoLatencia histograma(Path arquivo) {
+		try {
+			List<String> linhas = Files.readAllLines(arquivo);
+			return histograma(linhas.stream().map(String::trim).filter(l -> !l.isEmpty() && !l.startsWith("#"))
+					.mapToLong(l -> nanos(Double.parseDouble(l))).toArray());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Não foi possível ler o histograma de latência " + arquivo, e);
+		}
+	}
+
+	private static long nanos(double ms) {
+		return (long) (ms * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+}
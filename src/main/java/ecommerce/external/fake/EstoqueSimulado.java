@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import ecommerce.dto.DisponibilidadeDTO;
@@ -14,9 +16,21 @@ import ecommerce.external.IEstoqueExternal;
 @Service
 public class EstoqueSimulado implements IEstoqueExternal {
 
-    private Map<Long, Long> estoque;
+    private final Map<Long, Long> estoque;
+
+    private final SimuladorDegradacao degradacao;
 
     public EstoqueSimulado() {
+        this(SimuladorDegradacao.semDegradacao());
+    }
+
+    @Autowired
+    public EstoqueSimulado(@Qualifier("simulacaoEstoque") PropriedadesSimulacao simulacao) {
+        this(new SimuladorDegradacao(simulacao));
+    }
+
+    public EstoqueSimulado(SimuladorDegradacao degradacao) {
+        this.degradacao = degradacao;
         estoque = new HashMap<>();
         estoque.put(1L, 100L);
         estoque.put(2L, 50L);
@@ -25,26 +39,40 @@ public class EstoqueSimulado implements IEstoqueExternal {
 
     @Override
     public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
-        boolean sucesso = true;
+        return degradacao.executar(() -> baixar(produtosIds, produtosQuantidades));
+    }
+
+    @Override
+    public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+        return degradacao.executar(() -> verificar(produtosIds, produtosQuantidades));
+    }
 
+    // Usado por testes e benchmarks para partir de um estoque conhecido
+    public synchronized void definirQuantidade(Long produtoId, long quantidade) {
+        estoque.put(produtoId, quantidade);
+    }
+
+    // Verifica todos os itens antes de baixar qualquer um: a baixa é tudo ou nada
+    private synchronized EstoqueBaixaDTO baixar(List<Long> produtosIds, List<Long> produtosQuantidades) {
+        Map<Long, Long> pedidos = new HashMap<>();
         for (int i = 0; i < produtosIds.size(); i++) {
-            Long produtoId = produtosIds.get(i);
-            Long quantidade = produtosQuantidades.get(i);
-            Long estoqueAtual = estoque.getOrDefault(produtoId, 0L);
+            pedidos.merge(produtosIds.get(i), produtosQuantidades.get(i), Long::sum);
+        }
 
-            if (estoqueAtual >= quantidade) {
-                estoque.put(produtoId, estoqueAtual - quantidade);
-            } else {
-                sucesso = false;
-                break;
+        for (Map.Entry<Long, Long> pedido : pedidos.entrySet()) {
+            if (estoque.getOrDefault(pedido.getKey(), 0L) < pedido.getValue()) {
+                return new EstoqueBaixaDTO(false);
             }
         }
 
-        return new EstoqueBaixaDTO(sucesso);
+        for (Map.Entry<Long, Long> pedido : pedidos.entrySet()) {
+            estoque.merge(pedido.getKey(), -pedido.getValue(), Long::sum);
+        }
+
+        return new EstoqueBaixaDTO(true);
     }
 
-    @Override
-    public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+    private synchronized DisponibilidadeDTO verificar(List<Long> produtosIds, List<Long> produtosQuantidades) {
         boolean disponivel = true;
         List<Long> produtosIndisponiveis = new ArrayList<>();
 
@@ -0,0 +1,8 @@
+package ecommerce.external.fake;
+
+public class FalhaSimuladaException extends RuntimeException {
+
+	public FalhaSimuladaException(String mensagem) {
+		super(mensagem);
+	}
+}
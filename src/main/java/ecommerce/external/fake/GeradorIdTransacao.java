@@ -0,0 +1,48 @@
+package ecommerce.external.fake;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Ids no estilo Snowflake: 41 bits de milissegundos desde 2024-01-01, 10 bits
+ * de nó e 12 bits de sequência. O par (milissegundo, sequência) avança com um
+ * único CAS; se a sequência se esgota no mesmo milissegundo ou o relógio volta,
+ * o gerador segue a partir do último valor emitido, então nunca repete um id.
+ */
+public class GeradorIdTransacao {
+
+	private static final long EPOCA = 1_704_067_200_000L;
+	private static final int BITS_NO = 10;
+	private static final int BITS_SEQUENCIA = 12;
+	private static final long MAX_NO = (1L << BITS_NO) - 1;
+
+	private final long no;
+	private final LongSupplier relogio;
+	private final AtomicLong ultimo = new AtomicLong();
+
+	public GeradorIdTransacao(long no) {
+		this(no, System::currentTimeMillis);
+	}
+
+	public GeradorIdTransacao(long no, LongSupplier relogio) {
+		if (no < 0 || no > MAX_NO) {
+			throw new IllegalArgumentException("Nó deve estar entre 0 e " + MAX_NO + ".");
+		}
+		this.no = no;
+		this.relogio = relogio;
+	}
+
+	public long proximo() {
+		long anterior;
+		long atual;
+		do {
+			anterior = ultimo.get();
+			long agora = (relogio.getAsLong() - EPOCA) << BITS_SEQUENCIA;
+			atual = agora > anterior ? agora : anterior + 1;
+		} while (!ultimo.compareAndSet(anterior, atual));
+
+		long milissegundo = atual >>> BITS_SEQUENCIA;
+		long sequencia = atual & ((1L << BITS_SEQUENCIA) - 1);
+		return (milissegundo << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | sequencia;
+	}
+}
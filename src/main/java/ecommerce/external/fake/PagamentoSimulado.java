@@ -1,9 +1,12 @@
 package ecommerce.external.fake;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import ecommerce.dto.PagamentoDTO;
@@ -12,28 +15,49 @@ import ecommerce.external.IPagamentoExternal;
 @Service
 public class PagamentoSimulado implements IPagamentoExternal {
 
-    private Map<Long, PagamentoDTO> pagamentos;
+    private final GeradorIdTransacao geradorId;
+    private final RegistroPagamentos pagamentos;
+    private final double taxaAprovacao;
+    private final SimuladorDegradacao degradacao;
 
     public PagamentoSimulado() {
-        this.pagamentos = new HashMap<>();
+        this(0L, Duration.ofMinutes(15), 0.9, new PropriedadesSimulacao());
+    }
+
+    @Autowired
+    public PagamentoSimulado(@Value("${ecommerce.pagamento.simulado.no:0}") long no,
+                             @Value("${ecommerce.pagamento.simulado.validade-autorizacao:15m}") Duration validadeAutorizacao,
+                             @Value("${ecommerce.pagamento.simulado.taxa-aprovacao:0.9}") double taxaAprovacao,
+                             @Qualifier("simulacaoPagamento") PropriedadesSimulacao simulacao) {
+        this.geradorId = new GeradorIdTransacao(no);
+        this.taxaAprovacao = taxaAprovacao;
+        this.degradacao = new SimuladorDegradacao(simulacao);
+        this.pagamentos = new RegistroPagamentos(validadeAutorizacao.toNanos(),
+                Math.max(Duration.ofSeconds(1).toNanos(), validadeAutorizacao.toNanos() / 10));
     }
 
     public PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal) {
-        boolean pagamentoAutorizado = new Random().nextDouble() <= 0.9;
-        Long transacaoId = new Random().nextLong(1000L);
+        return degradacao.executar(() -> autorizar(clienteId));
+    }
+
+    public void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId) {
+        degradacao.executar(() -> pagamentos.remover(clienteId, pagamentoTransacaoId));
+    }
+
+    public List<PagamentoDTO> buscarPorCliente(Long clienteId) {
+        return pagamentos.buscarPorCliente(clienteId);
+    }
+
+    private PagamentoDTO autorizar(Long clienteId) {
+        boolean pagamentoAutorizado = ThreadLocalRandom.current().nextDouble() < taxaAprovacao;
+        Long transacaoId = geradorId.proximo();
 
         PagamentoDTO pagamentoDTO = new PagamentoDTO(pagamentoAutorizado, transacaoId);
 
         if (pagamentoAutorizado) {
-            pagamentos.put(transacaoId, pagamentoDTO);
+            pagamentos.registrar(clienteId, pagamentoDTO);
         }
 
         return pagamentoDTO;
     }
-
-    public void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId) {
-        if (pagamentos.containsKey(pagamentoTransacaoId)) {
-            pagamentos.remove(pagamentoTransacaoId);
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package ecommerce.external.fake;
+
+// Perfil de degradação de um simulador, ligado às propriedades ecommerce.simulador.*
+public class PropriedadesSimulacao {
+
+	private Latencia latencia = new Latencia();
+	private double taxaFalha;
+	private double taxaTimeout;
+	private long timeoutMs = 5_000L;
+	private Aquecimento aquecimento = new Aquecimento();
+	private Brownout brownout = new Brownout();
+
+	public static class Latencia {
+		// nenhuma, fixa, normal, lognormal ou histograma
+		private String tipo = "nenhuma";
+		private double mediaMs;
+		private double desvioMs;
+		private double medianaMs;
+		private double sigma;
+		private String arquivo;
+
+		public String getTipo() {
+			return tipo;
+		}
+
+		public void setTipo(String tipo) {
+			this.tipo = tipo;
+		}
+
+		public double getMediaMs() {
+			return mediaMs;
+		}
+
+		public void setMediaMs(double mediaMs) {
+			this.mediaMs = mediaMs;
+		}
+
+		public double getDesvioMs() {
+			return desvioMs;
+		}
+
+		public void setDesvioMs(double desvioMs) {
+			this.desvioMs = desvioMs;
+		}
+
+		public double getMedianaMs() {
+			return medianaMs;
+		}
+
+		public void setMedianaMs(double medianaMs) {
+			this.medianaMs = medianaMs;
+		}
+
+		public double getSigma() {
+			return sigma;
+		}
+
+		public void setSigma(double sigma) {
+			this.sigma = sigma;
+		}
+
+		public String getArquivo() {
+			return arquivo;
+		}
+
+		public void setArquivo(String arquivo) {
+			this.arquivo = arquivo;
+		}
+	}
+
+	// Partida lenta: a latência começa multiplicada por fatorInicial e cai linearmente até 1
+	public static class Aquecimento {
+		private long duracaoS;
+		private double fatorInicial = 1d;
+
+		public long getDuracaoS() {
+			return duracaoS;
+		}
+
+		public void setDuracaoS(long duracaoS) {
+			this.duracaoS = duracaoS;
+		}
+
+		public double getFatorInicial() {
+			return fatorInicial;
+		}
+
+		public void setFatorInicial(double fatorInicial) {
+			this.fatorInicial = fatorInicial;
+		}
+	}
+
+	// Janela de degradação a partir de inicioS, repetida a cada periodoS (0 para ocorrer uma vez)
+	public static class Brownout {
+		private long inicioS;
+		private long duracaoS;
+		private long periodoS;
+		private double fatorLatencia = 1d;
+		private double taxaFalha;
+
+		public long getInicioS() {
+			return inicioS;
+		}
+
+		public void setInicioS(long inicioS) {
+			this.inicioS = inicioS;
+		}
+
+		public long getDuracaoS() {
+			return duracaoS;
+		}
+
+		public void setDuracaoS(long duracaoS) {
+			this.duracaoS = duracaoS;
+		}
+
+		public long getPeriodoS() {
+			return periodoS;
+		}
+
+		public void setPeriodoS(long periodoS) {
+			this.periodoS = periodoS;
+		}
+
+		public double getFatorLatencia() {
+			return fatorLatencia;
+		}
+
+		public void setFatorLatencia(double fatorLatencia) {
+			this.fatorLatencia = fatorLatencia;
+		}
+
+		public double getTaxaFalha() {
+			return taxaFalha;
+		}
+
+		public void setTaxaFalha(double taxaFalha) {
+			this.taxaFalha = taxaFalha;
+		}
+	}
+
+	public Latencia getLatencia() {
+		return latencia;
+	}
+
+	public void setLatencia(Latencia latencia) {
+		this.latencia = latencia;
+	}
+
+	public double getTaxaFalha() {
+		return taxaFalha;
+	}
+
+	public void setTaxaFalha(double taxaFalha) {
+		this.taxaFalha = taxaFalha;
+	}
+
+	public double getTaxaTimeout() {
+		return taxaTimeout;
+	}
+
+	public void setTaxaTimeout(double taxaTimeout) {
+		this.taxaTimeout = taxaTimeout;
+	}
+
+	public long getTimeoutMs() {
+		return timeoutMs;
+	}
+
+	public void setTimeoutMs(long timeoutMs) {
+		this.timeoutMs = timeoutMs;
+	}
+
+	public Aquecimento getAquecimento() {
+		return aquecimento;
+	}
+
+	public void setAquecimento(Aquecimento aquecimento) {
+		this.aquecimento = aquecimento;
+	}
+
+	public Brownout getBrownout() {
+		return brownout;
+	}
+
+	public void setBrownout(Brownout brownout) {
+		this.brownout = brownout;
+	}
+}
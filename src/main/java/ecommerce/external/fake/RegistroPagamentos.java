@@ -0,0 +1,121 @@
+package ecommerce.external.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import ecommerce.dto.PagamentoDTO;
+
+/*
+ * Autorizações de pagamento com expiração. Além do mapa por transação há um
+ * índice por cliente. As autorizações vencidas são ignoradas nas consultas e
+ * removidas por uma varredura amortizada, feita por no máximo uma thread a cada
+ * intervalo, sem thread dedicada.
+ */
+public class RegistroPagamentos {
+
+	private final Map<Long, Autorizacao> autorizacoes = new ConcurrentHashMap<>();
+	private final Map<Long, Set<Long>> porCliente = new ConcurrentHashMap<>();
+
+	private final long validadeNanos;
+	private final long intervaloLimpezaNanos;
+	private final LongSupplier relogio;
+	private final AtomicLong proximaLimpeza;
+
+	public RegistroPagamentos(long validadeNanos, long intervaloLimpezaNanos) {
+		this(validadeNanos, intervaloLimpezaNanos, System::nanoTime);
+	}
+
+	public RegistroPagamentos(long validadeNanos, long intervaloLimpezaNanos, LongSupplier relogio) {
+		this.validadeNanos = validadeNanos;
+		this.intervaloLimpezaNanos = intervaloLimpezaNanos;
+		this.relogio = relogio;
+		this.proximaLimpeza = new AtomicLong(relogio.getAsLong() + intervaloLimpezaNanos);
+	}
+
+	public void registrar(Long clienteId, PagamentoDTO pagamento) {
+		// Antes de qualquer escrita: sem cliente a autorização ficaria no mapa principal e fora do índice
+		if (clienteId == null || pagamento == null || pagamento.transacaoId() == null) {
+			throw new IllegalArgumentException("Cliente e transação são obrigatórios para registrar o pagamento.");
+		}
+		long agora = relogio.getAsLong();
+		limparSeNecessario(agora);
+
+		autorizacoes.put(pagamento.transacaoId(), new Autorizacao(clienteId, pagamento, agora + validadeNanos));
+		porCliente.compute(clienteId, (id, transacoes) -> {
+			Set<Long> resultado = transacoes != null ? transacoes : ConcurrentHashMap.newKeySet();
+			resultado.add(pagamento.transacaoId());
+			return resultado;
+		});
+	}
+
+	public PagamentoDTO buscar(Long transacaoId) {
+		Autorizacao autorizacao = autorizacoes.get(transacaoId);
+		if (autorizacao == null || autorizacao.expirada(relogio.getAsLong())) {
+			return null;
+		}
+		return autorizacao.pagamento();
+	}
+
+	public List<PagamentoDTO> buscarPorCliente(Long clienteId) {
+		Set<Long> transacoes = porCliente.get(clienteId);
+		if (transacoes == null) {
+			return List.of();
+		}
+
+		long agora = relogio.getAsLong();
+		List<PagamentoDTO> pagamentos = new ArrayList<>(transacoes.size());
+		for (Long transacaoId : transacoes) {
+			Autorizacao autorizacao = autorizacoes.get(transacaoId);
+			if (autorizacao != null && !autorizacao.expirada(agora)) {
+				pagamentos.add(autorizacao.pagamento());
+			}
+		}
+		return pagamentos;
+	}
+
+	public boolean remover(Long clienteId, Long transacaoId) {
+		Autorizacao autorizacao = autorizacoes.get(transacaoId);
+		if (autorizacao == null || !autorizacao.clienteId().equals(clienteId)
+				|| !autorizacoes.remove(transacaoId, autorizacao)) {
+			return false;
+		}
+		desindexar(autorizacao.clienteId(), transacaoId);
+		return true;
+	}
+
+	public int tamanho() {
+		return autorizacoes.size();
+	}
+
+	private void limparSeNecessario(long agora) {
+		long prevista = proximaLimpeza.get();
+		if (agora - prevista < 0 || !proximaLimpeza.compareAndSet(prevista, agora + intervaloLimpezaNanos)) {
+			return;
+		}
+
+		for (Map.Entry<Long, Autorizacao> entrada : autorizacoes.entrySet()) {
+			Autorizacao autorizacao = entrada.getValue();
+			if (autorizacao.expirada(agora) && autorizacoes.remove(entrada.getKey(), autorizacao)) {
+				desindexar(autorizacao.clienteId(), entrada.getKey());
+			}
+		}
+	}
+
+	private void desindexar(Long clienteId, Long transacaoId) {
+		porCliente.computeIfPresent(clienteId, (id, transacoes) -> {
+			transacoes.remove(transacaoId);
+			return transacoes.isEmpty() ? null : transacoes;
+		});
+	}
+
+	private record Autorizacao(Long clienteId, PagamentoDTO pagamento, long expiraEm) {
+		private boolean expirada(long agora) {
+			return agora - expiraEm >= 0;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package ecommerce.external.fake;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+
+/*
+ * Aplica latência, falhas e timeouts a uma operação simulada. Os atrasos são
+ * agendados no temporizador compartilhado de CompletableFuture, sem sleep nem
+ * thread dedicada por chamada; apenas quem chamou aguarda o sinal e depois
+ * executa a operação. O prazo da requisição (Prazo) é respeitado: uma chamada
+ * cujo prazo esgota não executa a operação e lança PrazoExpiradoException.
+ */
+public class SimuladorDegradacao {
+
+	private final DistribuicaoLatencia latencia;
+	private final double taxaFalha;
+	private final double taxaTimeout;
+	private final long timeoutNanos;
+
+	private final long aquecimentoNanos;
+	private final double fatorAquecimento;
+
+	private final long brownoutInicioNanos;
+	private final long brownoutDuracaoNanos;
+	private final long brownoutPeriodoNanos;
+	private final double brownoutFatorLatencia;
+	private final double brownoutTaxaFalha;
+
+	private final LongSupplier relogio;
+	private final long inicio;
+
+	public SimuladorDegradacao(PropriedadesSimulacao propriedades) {
+		this(propriedades, System::nanoTime);
+	}
+
+	public SimuladorDegradacao(PropriedadesSimulacao propriedades, LongSupplier relogio) {
+		this(criarDistribuicao(propriedades.getLatencia()), propriedades, relogio);
+	}
+
+	public SimuladorDegradacao(DistribuicaoLatencia latencia, PropriedadesSimulacao propriedades, LongSupplier relogio) {
+		this.latencia = latencia;
+		this.taxaFalha = propriedades.getTaxaFalha();
+		this.taxaTimeout = propriedades.getTaxaTimeout();
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(propriedades.getTimeoutMs());
+
+		this.aquecimentoNanos = TimeUnit.SECONDS.toNanos(propriedades.getAquecimento().getDuracaoS());
+		this.fatorAquecimento = propriedades.getAquecimento().getFatorInicial();
+
+		PropriedadesSimulacao.Brownout brownout = propriedades.getBrownout();
+		this.brownoutInicioNanos = TimeUnit.SECONDS.toNanos(brownout.getInicioS());
+		this.brownoutDuracaoNanos = TimeUnit.SECONDS.toNanos(brownout.getDuracaoS());
+		this.brownoutPeriodoNanos = TimeUnit.SECONDS.toNanos(brownout.getPeriodoS());
+		this.brownoutFatorLatencia = brownout.getFatorLatencia();
+		this.brownoutTaxaFalha = brownout.getTaxaFalha();
+
+		this.relogio = relogio;
+		this.inicio = relogio.getAsLong();
+	}
+
+	public static SimuladorDegradacao semDegradacao() {
+		return new SimuladorDegradacao(new PropriedadesSimulacao());
+	}
+
+	public <T> T executar(Supplier<T> operacao) {
+		Prazo.verificar();
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		long decorrido = relogio.getAsLong() - inicio;
+		boolean emBrownout = emBrownout(decorrido);
+
+		if (aleatorio.nextDouble() < taxaTimeout) {
+			esperar(timeoutNanos);
+			throw new FalhaSimuladaException("Tempo de resposta esgotado (simulado).");
+		}
+
+		esperar((long) (latencia.amostrarNanos(aleatorio) * fatorLatencia(decorrido, emBrownout)));
+
+		double falha = taxaFalha + (emBrownout ? brownoutTaxaFalha : 0d);
+		if (aleatorio.nextDouble() < falha) {
+			throw new FalhaSimuladaException("Falha no serviço externo (simulada).");
+		}
+		Prazo.verificar();
+		return operacao.get();
+	}
+
+	private double fatorLatencia(long decorrido, boolean emBrownout) {
+		double fator = 1d;
+		if (decorrido < aquecimentoNanos) {
+			fator = fatorAquecimento - (fatorAquecimento - 1d) * ((double) decorrido / aquecimentoNanos);
+		}
+		if (emBrownout) {
+			fator *= brownoutFatorLatencia;
+		}
+		return fator;
+	}
+
+	private boolean emBrownout(long decorrido) {
+		if (brownoutDuracaoNanos <= 0 || decorrido < brownoutInicioNanos) {
+			return false;
+		}
+		long desdeInicio = decorrido - brownoutInicioNanos;
+		if (brownoutPeriodoNanos > 0) {
+			desdeInicio %= brownoutPeriodoNanos;
+		}
+		return desdeInicio < brownoutDuracaoNanos;
+	}
+
+	// A espera nunca passa do prazo da requisição: ao esgotá-lo, a operação não é executada
+	private static void esperar(long atrasoNanos) {
+		if (atrasoNanos <= 0) {
+			return;
+		}
+		long restante = Prazo.restanteNanos();
+		if (restante < atrasoNanos) {
+			aguardar(restante);
+			throw new PrazoExpiradoException("Prazo da requisição esgotado durante a chamada simulada.");
+		}
+		aguardar(atrasoNanos);
+	}
+
+	private static void aguardar(long atrasoNanos) {
+		if (atrasoNanos <= 0) {
+			return;
+		}
+		CompletableFuture<Void> sinal = new CompletableFuture<Void>().completeOnTimeout(null, atrasoNanos,
+				TimeUnit.NANOSECONDS);
+		try {
+			sinal.get();
+		} catch (InterruptedException e) {
+			sinal.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new FalhaSimuladaException("Chamada simulada interrompida.");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static DistribuicaoLatencia criarDistribuicao(PropriedadesSimulacao.Latencia latencia) {
+		return switch (latencia.getTipo()) {
+			case "nenhuma" -> DistribuicaoLatencia.nenhuma();
+			case "fixa" -> DistribuicaoLatencia.fixa(latencia.getMediaMs());
+			case "normal" -> DistribuicaoLatencia.normal(latencia.getMediaMs(), latencia.getDesvioMs());
+			case "lognormal" -> DistribuicaoLatencia.logNormal(latencia.getMedianaMs(), latencia.getSigma());
+			case "histograma" -> DistribuicaoLatencia.histograma(Path.of(latencia.getArquivo()));
+			default -> throw new IllegalArgumentException("Distribuição de latência desconhecida: " + latencia.getTipo());
+		};
+	}
+}
@@ -0,0 +1,58 @@
+package ecommerce.monitoramento;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Anel de períodos de tempo numerados, com um valor por período. Quando o anel
+ * dá a volta, a posição recebe um período novo (CAS) em vez de ter o valor
+ * antigo zerado: um reset concorrente com uma escrita perderia ou vazaria
+ * dados, e uma escrita atrasada cairia no período seguinte.
+ */
+public class AnelPeriodos<T> {
+
+	private final AtomicReferenceArray<Periodo<T>> posicoes;
+	private final Supplier<T> fabrica;
+
+	public AnelPeriodos(int tamanho, Supplier<T> fabrica) {
+		this.posicoes = new AtomicReferenceArray<>(tamanho);
+		this.fabrica = fabrica;
+	}
+
+	// Devolve null quando a posição já pertence a um período mais novo (relógio lido antes da virada)
+	public T atual(long periodo) {
+		int indice = (int) (periodo % posicoes.length());
+		while (true) {
+			Periodo<T> existente = posicoes.get(indice);
+			if (existente != null && existente.numero >= periodo) {
+				return existente.numero == periodo ? existente.valor : null;
+			}
+			Periodo<T> novo = new Periodo<>(periodo, fabrica.get());
+			if (posicoes.compareAndSet(indice, existente, novo)) {
+				return novo.valor;
+			}
+		}
+	}
+
+	// Entrega os valores dos últimos N períodos até o atual, inclusive, limitado ao tamanho do anel
+	public void paraCada(long atual, int quantidadePeriodos, Consumer<T> acao) {
+		long inicio = atual - Math.min(quantidadePeriodos, posicoes.length()) + 1;
+		for (int i = 0; i < posicoes.length(); i++) {
+			Periodo<T> periodo = posicoes.get(i);
+			if (periodo != null && periodo.numero >= inicio && periodo.numero <= atual) {
+				acao.accept(periodo.valor);
+			}
+		}
+	}
+
+	private static class Periodo<T> {
+		private final long numero;
+		private final T valor;
+
+		private Periodo(long numero, T valor) {
+			this.numero = numero;
+			this.valor = valor;
+		}
+	}
+}
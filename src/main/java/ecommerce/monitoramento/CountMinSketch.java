@@ -0,0 +1,57 @@
+package ecommerce.monitoramento;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class CountMinSketch {
+
+	private static final long[] SEMENTES = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+			0xD6E8FEB86659FD93L, 0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL };
+
+	private final int profundidade;
+	private final int mascara;
+	private final AtomicLongArray contadores;
+
+	public CountMinSketch(int profundidade, int largura) {
+		if (profundidade < 1 || profundidade > SEMENTES.length) {
+			throw new IllegalArgumentException("Profundidade deve estar entre 1 e " + SEMENTES.length + ".");
+		}
+		if (largura < 1 || Integer.bitCount(largura) != 1) {
+			throw new IllegalArgumentException("Largura deve ser uma potência de 2.");
+		}
+		this.profundidade = profundidade;
+		this.mascara = largura - 1;
+		this.contadores = new AtomicLongArray(profundidade * largura);
+	}
+
+	// Incrementa a chave e devolve a nova estimativa, evitando uma segunda passada pelas linhas
+	public long adicionar(long chave, long quantidade) {
+		long estimativa = Long.MAX_VALUE;
+		for (int linha = 0; linha < profundidade; linha++) {
+			long valor = contadores.addAndGet(indice(linha, chave), quantidade);
+			estimativa = Math.min(estimativa, valor);
+		}
+		return estimativa;
+	}
+
+	public long estimar(long chave) {
+		long estimativa = Long.MAX_VALUE;
+		for (int linha = 0; linha < profundidade; linha++) {
+			estimativa = Math.min(estimativa, contadores.get(indice(linha, chave)));
+		}
+		return estimativa;
+	}
+
+	public void limpar() {
+		for (int i = 0; i < contadores.length(); i++) {
+			contadores.set(i, 0L);
+		}
+	}
+
+	private int indice(int linha, long chave) {
+		long h = (chave + SEMENTES[linha]) * 0xBF58476D1CE4E5B9L;
+		h ^= h >>> 31;
+		h *= 0x94D049BB133111EBL;
+		h ^= h >>> 29;
+		return linha * (mascara + 1) + ((int) h & mascara);
+	}
+}
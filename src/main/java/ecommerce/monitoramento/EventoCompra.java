@@ -0,0 +1,53 @@
+package ecommerce.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * Evento JFR de uma finalização de compra. A duração do evento é a da compra
+ * inteira; os campos de tempo separam a precificação das chamadas externas para
+ * que a gravação mostre onde cada compra gastou o seu tempo.
+ */
+@Name("ecommerce.Compra")
+@Label("Finalização de Compra")
+@Category({ "eCommerce", "Compra" })
+@Description("Finalização de um carrinho, do carregamento à baixa no estoque")
+@StackTrace(false)
+public class EventoCompra extends Event {
+
+	@Label("Carrinho")
+	public long carrinhoId;
+
+	@Label("Cliente")
+	public long clienteId;
+
+	@Label("Quantidade de Itens")
+	public int quantidadeItens;
+
+	@Label("Sucesso")
+	public boolean sucesso;
+
+	@Label("Motivo da Falha")
+	public String motivoFalha;
+
+	@Label("Precificação")
+	@Timespan(Timespan.NANOSECONDS)
+	public long duracaoPrecificacao;
+
+	@Label("Consulta ao Estoque")
+	@Timespan(Timespan.NANOSECONDS)
+	public long duracaoDisponibilidade;
+
+	@Label("Pagamento")
+	@Timespan(Timespan.NANOSECONDS)
+	public long duracaoPagamento;
+
+	@Label("Baixa no Estoque")
+	@Timespan(Timespan.NANOSECONDS)
+	public long duracaoBaixa;
+}
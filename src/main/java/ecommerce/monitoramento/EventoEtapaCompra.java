@@ -0,0 +1,57 @@
+package ecommerce.monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Evento JFR de uma etapa da compra (carregamento, disponibilidade, precificação,
+ * pagamento, baixa). concluir() devolve a duração medida para que o evento da
+ * compra acumule os tempos mesmo com a gravação desligada.
+ */
+@Name("ecommerce.EtapaCompra")
+@Label("Etapa da Compra")
+@Category({ "eCommerce", "Compra" })
+@Description("Etapa individual da finalização de um carrinho")
+@StackTrace(false)
+public class EventoEtapaCompra extends Event {
+
+	public static final String CARREGAMENTO = "carregamento";
+	public static final String DISPONIBILIDADE = "disponibilidade";
+	public static final String PRECIFICACAO = "precificacao";
+	public static final String PAGAMENTO = "pagamento";
+	public static final String BAIXA = "baixa";
+	public static final String CANCELAMENTO = "cancelamento";
+
+	@Label("Carrinho")
+	public long carrinhoId;
+
+	@Label("Etapa")
+	public String etapa;
+
+	@Label("Quantidade de Itens")
+	public int quantidadeItens;
+
+	private transient long inicioNanos;
+
+	public static EventoEtapaCompra iniciar(long carrinhoId, String etapa, int quantidadeItens) {
+		EventoEtapaCompra evento = new EventoEtapaCompra();
+		evento.carrinhoId = carrinhoId;
+		evento.etapa = etapa;
+		evento.quantidadeItens = quantidadeItens;
+		evento.inicioNanos = System.nanoTime();
+		evento.begin();
+		return evento;
+	}
+
+	public long concluir() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+		return System.nanoTime() - inicioNanos;
+	}
+}
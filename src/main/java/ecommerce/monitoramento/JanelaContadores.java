@@ -0,0 +1,46 @@
+package ecommerce.monitoramento;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Intervalos de tempo com um conjunto de contadores LongAdder por intervalo,
+ * guardados em um AnelPeriodos. As escritas só tocam o intervalo corrente.
+ */
+public class JanelaContadores {
+
+	private final AnelPeriodos<LongAdder[]> intervalos;
+	private final long duracaoIntervaloMillis;
+	private final int quantidadeContadores;
+
+	public JanelaContadores(int quantidadeIntervalos, long duracaoIntervaloMillis, int quantidadeContadores) {
+		this.intervalos = new AnelPeriodos<>(quantidadeIntervalos, () -> novosContadores(quantidadeContadores));
+		this.duracaoIntervaloMillis = duracaoIntervaloMillis;
+		this.quantidadeContadores = quantidadeContadores;
+	}
+
+	public void adicionar(long agoraMillis, int contador, long valor) {
+		LongAdder[] contadores = intervalos.atual(agoraMillis / duracaoIntervaloMillis);
+		if (contadores != null) {
+			contadores[contador].add(valor);
+		}
+	}
+
+	// Soma os contadores dos últimos N intervalos, incluindo o corrente
+	public long[] somar(long agoraMillis, int quantidadeIntervalos) {
+		long[] totais = new long[quantidadeContadores];
+		intervalos.paraCada(agoraMillis / duracaoIntervaloMillis, quantidadeIntervalos, contadores -> {
+			for (int c = 0; c < quantidadeContadores; c++) {
+				totais[c] += contadores[c].sum();
+			}
+		});
+		return totais;
+	}
+
+	private static LongAdder[] novosContadores(int quantidade) {
+		LongAdder[] contadores = new LongAdder[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			contadores[i] = new LongAdder();
+		}
+		return contadores;
+	}
+}
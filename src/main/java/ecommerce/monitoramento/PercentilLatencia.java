@@ -0,0 +1,56 @@
+package ecommerce.monitoramento;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Percentil das últimas latências registradas. As amostras ficam em um buffer
+ * circular sem lock; o percentil é recalculado (cópia + ordenação) a cada
+ * oitavo do buffer por quem registrou a amostra que cruzou a marca, e lido dos
+ * demais como um volatile.
+ */
+public class PercentilLatencia {
+
+	private final AtomicLongArray amostras;
+	private final AtomicLong registradas = new AtomicLong();
+	private final double percentil;
+	private final int minimoAmostras;
+	private final int intervaloRecalculo;
+
+	private volatile long valorNanos;
+
+	public PercentilLatencia(int capacidade, double percentil, int minimoAmostras, long valorInicialNanos) {
+		if (capacidade < 8 || percentil <= 0 || percentil >= 1 || minimoAmostras < 1 || minimoAmostras > capacidade) {
+			throw new IllegalArgumentException("Parâmetros inválidos para o percentil de latência.");
+		}
+		this.amostras = new AtomicLongArray(capacidade);
+		this.percentil = percentil;
+		this.minimoAmostras = minimoAmostras;
+		this.intervaloRecalculo = Math.max(1, capacidade / 8);
+		this.valorNanos = valorInicialNanos;
+	}
+
+	public void registrar(long latenciaNanos) {
+		long n = registradas.getAndIncrement();
+		amostras.set((int) (n % amostras.length()), latenciaNanos);
+		long total = n + 1;
+		if (total >= minimoAmostras && (total == minimoAmostras || total % intervaloRecalculo == 0)) {
+			recalcular((int) Math.min(total, amostras.length()));
+		}
+	}
+
+	// Valor inicial até haver o mínimo de amostras
+	public long getValorNanos() {
+		return valorNanos;
+	}
+
+	private void recalcular(int quantidade) {
+		long[] copia = new long[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			copia[i] = amostras.get(i);
+		}
+		Arrays.sort(copia);
+		valorNanos = copia[Math.min(quantidade - 1, (int) Math.ceil(percentil * quantidade) - 1)];
+	}
+}
@@ -0,0 +1,49 @@
+package ecommerce.monitoramento;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ecommerce.dto.ProdutosQuentesDTO;
+
+@Component
+public class ProdutosQuentes {
+
+	private final RastreadorTopK baixas;
+	private final RastreadorTopK consultas;
+
+	@Autowired
+	public ProdutosQuentes(@Value("${ecommerce.produtos-quentes.janela-maxima-minutos:60}") int janelaMaximaMinutos,
+			@Value("${ecommerce.produtos-quentes.profundidade:4}") int profundidade,
+			@Value("${ecommerce.produtos-quentes.largura:2048}") int largura,
+			@Value("${ecommerce.produtos-quentes.k:20}") int k,
+			@Value("${ecommerce.produtos-quentes.max-candidatos:256}") int maxCandidatos) {
+		this.baixas = new RastreadorTopK(janelaMaximaMinutos, profundidade, largura, k, maxCandidatos);
+		this.consultas = new RastreadorTopK(janelaMaximaMinutos, profundidade, largura, k, maxCandidatos);
+	}
+
+	public void registrarBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		registrar(baixas, produtosIds, produtosQuantidades);
+	}
+
+	public void registrarConsulta(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		registrar(consultas, produtosIds, produtosQuantidades);
+	}
+
+	public ProdutosQuentesDTO maisFrequentes(int janelaMinutos, int k) {
+		return new ProdutosQuentesDTO(janelaMinutos, baixas.maisFrequentes(janelaMinutos, k),
+				consultas.maisFrequentes(janelaMinutos, k));
+	}
+
+	private void registrar(RastreadorTopK rastreador, List<Long> produtosIds, List<Long> produtosQuantidades) {
+		for (int i = 0; i < produtosIds.size(); i++) {
+			Long produtoId = produtosIds.get(i);
+			Long quantidade = produtosQuantidades.get(i);
+			if (produtoId != null && quantidade != null) {
+				rastreador.registrar(produtoId, quantidade);
+			}
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package ecommerce.monitoramento;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import ecommerce.dto.ProdutosQuentesDTO;
+
+@Component
+@Endpoint(id = "produtosquentes")
+public class ProdutosQuentesEndpoint {
+
+	private final ProdutosQuentes produtosQuentes;
+
+	public ProdutosQuentesEndpoint(ProdutosQuentes produtosQuentes) {
+		this.produtosQuentes = produtosQuentes;
+	}
+
+	@ReadOperation
+	public ProdutosQuentesDTO produtosQuentes(@Nullable Integer minutos, @Nullable Integer k) {
+		return produtosQuentes.maisFrequentes(minutos != null ? minutos : 5, k != null ? k : 10);
+	}
+}
@@ -0,0 +1,128 @@
+package ecommerce.monitoramento;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import ecommerce.dto.ProdutoQuenteDTO;
+
+/*
+ * Rastreia os produtos mais frequentes em janelas deslizantes de minutos. Cada
+ * minuto tem seu próprio count-min sketch e um conjunto limitado de candidatos;
+ * um produto só entra nos candidatos quando sua estimativa alcança o piso do
+ * top-K daquele minuto. As consultas somam as estimativas dos minutos da janela
+ * e selecionam os K maiores com um heap. Os minutos ficam em um AnelPeriodos.
+ */
+public class RastreadorTopK {
+
+	private static final long MILLIS_POR_MINUTO = 60_000L;
+
+	private final AnelPeriodos<Minuto> minutos;
+	private final int k;
+	private final int maxCandidatos;
+	private final LongSupplier relogio;
+
+	public RastreadorTopK(int janelaMaximaMinutos, int profundidade, int largura, int k, int maxCandidatos) {
+		this(janelaMaximaMinutos, profundidade, largura, k, maxCandidatos, System::currentTimeMillis);
+	}
+
+	public RastreadorTopK(int janelaMaximaMinutos, int profundidade, int largura, int k, int maxCandidatos,
+			LongSupplier relogio) {
+		// Valida os parâmetros do sketch já na construção
+		new CountMinSketch(profundidade, largura);
+		this.minutos = new AnelPeriodos<>(janelaMaximaMinutos, () -> new Minuto(new CountMinSketch(profundidade, largura)));
+		this.k = k;
+		this.maxCandidatos = Math.max(k, maxCandidatos);
+		this.relogio = relogio;
+	}
+
+	public void registrar(long produtoId, long quantidade) {
+		Minuto minuto = minutos.atual(relogio.getAsLong() / MILLIS_POR_MINUTO);
+		if (minuto == null) {
+			return;
+		}
+		long estimativa = minuto.sketch.adicionar(produtoId, quantidade);
+
+		if (estimativa >= minuto.piso && !minuto.candidatos.containsKey(produtoId)) {
+			minuto.candidatos.put(produtoId, Boolean.TRUE);
+			if (minuto.candidatos.size() > maxCandidatos) {
+				podar(minuto);
+			}
+		}
+	}
+
+	public List<ProdutoQuenteDTO> maisFrequentes(int janelaMinutos, int quantidade) {
+		List<Minuto> naJanela = new ArrayList<>();
+		Set<Long> candidatos = new HashSet<>();
+		minutos.paraCada(relogio.getAsLong() / MILLIS_POR_MINUTO, janelaMinutos, minuto -> {
+			naJanela.add(minuto);
+			candidatos.addAll(minuto.candidatos.keySet());
+		});
+
+		int limite = Math.min(quantidade, k);
+		PriorityQueue<ProdutoQuenteDTO> heap = new PriorityQueue<>(
+				Comparator.comparingLong(ProdutoQuenteDTO::quantidadeEstimada));
+		for (Long produtoId : candidatos) {
+			long total = 0L;
+			for (Minuto minuto : naJanela) {
+				total += minuto.sketch.estimar(produtoId);
+			}
+			if (heap.size() < limite) {
+				heap.add(new ProdutoQuenteDTO(produtoId, total));
+			} else if (limite > 0 && total > heap.peek().quantidadeEstimada()) {
+				heap.poll();
+				heap.add(new ProdutoQuenteDTO(produtoId, total));
+			}
+		}
+
+		List<ProdutoQuenteDTO> resultado = new ArrayList<>(heap);
+		resultado.sort(Comparator.comparingLong(ProdutoQuenteDTO::quantidadeEstimada).reversed());
+		return resultado;
+	}
+
+	// Mantém apenas os K candidatos mais frequentes do minuto e eleva o piso de entrada
+	private void podar(Minuto minuto) {
+		if (!minuto.podando.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			PriorityQueue<long[]> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c[1]));
+			for (Long produtoId : minuto.candidatos.keySet()) {
+				long estimativa = minuto.sketch.estimar(produtoId);
+				if (heap.size() < k) {
+					heap.add(new long[] { produtoId, estimativa });
+				} else if (estimativa > heap.peek()[1]) {
+					long[] removido = heap.poll();
+					minuto.candidatos.remove(removido[0]);
+					heap.add(new long[] { produtoId, estimativa });
+				} else {
+					minuto.candidatos.remove(produtoId);
+				}
+			}
+			if (heap.size() >= k) {
+				minuto.piso = heap.peek()[1];
+			}
+		} finally {
+			minuto.podando.set(false);
+		}
+	}
+
+	private static class Minuto {
+		private final CountMinSketch sketch;
+		private final Map<Long, Boolean> candidatos = new ConcurrentHashMap<>();
+		// Só a poda usa a trava: a virada de minuto não depende dela
+		private final AtomicBoolean podando = new AtomicBoolean();
+		private volatile long piso;
+
+		private Minuto(CountMinSketch sketch) {
+			this.sketch = sketch;
+		}
+	}
+}
@@ -1,15 +1,43 @@
 package ecommerce.repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ecommerce.dto.CarrinhoResumoDTO;
 import ecommerce.entity.CarrinhoDeCompras;
 import ecommerce.entity.Cliente;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface CarrinhoDeComprasRepository extends JpaRepository<CarrinhoDeCompras, Long> {
 
     Optional<CarrinhoDeCompras> findByIdAndCliente(Long id, Cliente cliente);
+
+    // Histórico paginado por chave (data, id), sem OFFSET, usando o índice idx_carrinho_cliente_data_id.
+    // Carrinhos sem data não têm posição na ordem (data, id) e ficam fora do histórico e da exportação.
+    String RESUMO = "select new ecommerce.dto.CarrinhoResumoDTO(c.id, c.data, count(i), sum(i.quantidade * p.preco)) "
+            + "from CarrinhoDeCompras c left join c.itens i left join i.produto p "
+            + "where c.cliente.id = :clienteId and c.data is not null ";
+    String AGRUPAMENTO = "group by c.id, c.data order by c.data desc, c.id desc";
+
+    @Query(RESUMO + AGRUPAMENTO)
+    List<CarrinhoResumoDTO> buscarHistorico(@Param("clienteId") Long clienteId, Pageable pagina);
+
+    @Query(RESUMO + "and (c.data < :data or (c.data = :data and c.id < :id)) " + AGRUPAMENTO)
+    List<CarrinhoResumoDTO> buscarHistoricoApos(@Param("clienteId") Long clienteId, @Param("data") LocalDate data,
+            @Param("id") Long id, Pageable pagina);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESUMO + AGRUPAMENTO)
+    Stream<CarrinhoResumoDTO> streamHistorico(@Param("clienteId") Long clienteId);
 }
@@ -0,0 +1,10 @@
+package ecommerce.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ecommerce.entity.EstoqueProduto;
+
+@Repository
+public interface EstoqueProdutoRepository extends JpaRepository<EstoqueProduto, Long> {
+}
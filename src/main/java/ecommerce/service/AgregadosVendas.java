@@ -0,0 +1,126 @@
+package ecommerce.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+import ecommerce.dto.AgregadosVendasDTO;
+import ecommerce.dto.MetricasVendasDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.monitoramento.JanelaContadores;
+
+/*
+ * Agregados de vendas em memória por TipoProduto e TipoCliente, para que os
+ * painéis não precisem varrer os carrinhos no banco. Valores monetários são
+ * guardados em centavos; frete e desconto são rateados entre os tipos de
+ * produto pelo peso e pelo valor de cada item.
+ */
+@Component
+public class AgregadosVendas {
+
+	private static final int RECEITA = 0;
+	private static final int UNIDADES = 1;
+	private static final int FRETE = 2;
+	private static final int DESCONTO = 3;
+	private static final int METRICAS = 4;
+
+	private static final TipoProduto[] TIPOS_PRODUTO = TipoProduto.values();
+	private static final TipoCliente[] TIPOS_CLIENTE = TipoCliente.values();
+	private static final int CONTADORES = (TIPOS_PRODUTO.length + TIPOS_CLIENTE.length) * METRICAS;
+
+	private final JanelaContadores segundos = new JanelaContadores(300, 1_000L, CONTADORES);
+	private final JanelaContadores minutos = new JanelaContadores(60, 60_000L, CONTADORES);
+	private final LongSupplier relogio;
+
+	public AgregadosVendas() {
+		this(System::currentTimeMillis);
+	}
+
+	public AgregadosVendas(LongSupplier relogio) {
+		this.relogio = relogio;
+	}
+
+	public void registrar(CarrinhoDeCompras carrinho, Cliente cliente, ResumoCusto custo) {
+		long agora = relogio.getAsLong();
+		double custoProdutos = custo.custoProdutos().doubleValue();
+		double pesoTotal = custo.pesoTotal().doubleValue();
+		long freteCentavos = centavos(custo.custoFrete());
+		long descontoCentavos = centavos(custo.desconto());
+
+		long unidades = 0L;
+		for (ItemCompra item : carrinho.getItens()) {
+			long quantidade = item.getQuantidade();
+			unidades += quantidade;
+
+			TipoProduto tipo = item.getProduto().getTipo();
+			if (tipo == null) {
+				continue;
+			}
+
+			BigDecimal subtotal = item.getProduto().getPreco().multiply(BigDecimal.valueOf(quantidade));
+			double fracaoValor = custoProdutos > 0 ? subtotal.doubleValue() / custoProdutos : 0d;
+			double fracaoPeso = pesoTotal > 0 ? (double) item.getProduto().getPeso() * quantidade / pesoTotal : fracaoValor;
+			long frete = Math.round(freteCentavos * fracaoPeso);
+			long desconto = Math.round(descontoCentavos * fracaoValor);
+
+			adicionar(agora, tipo.ordinal(), centavos(subtotal) + frete - desconto, quantidade, frete, desconto);
+		}
+
+		adicionar(agora, TIPOS_PRODUTO.length + cliente.getTipo().ordinal(), centavos(custo.custoTotal()), unidades,
+				freteCentavos, descontoCentavos);
+	}
+
+	public AgregadosVendasDTO consultar(String janela) {
+		long agora = relogio.getAsLong();
+		long[] totais = switch (janela) {
+			case "1m" -> segundos.somar(agora, 60);
+			case "5m" -> segundos.somar(agora, 300);
+			case "1h" -> minutos.somar(agora, 60);
+			default -> throw new IllegalArgumentException("Janela inválida. Use 1m, 5m ou 1h.");
+		};
+
+		Map<TipoProduto, MetricasVendasDTO> porTipoProduto = new EnumMap<>(TipoProduto.class);
+		for (TipoProduto tipo : TIPOS_PRODUTO) {
+			porTipoProduto.put(tipo, metricas(totais, tipo.ordinal()));
+		}
+		Map<TipoCliente, MetricasVendasDTO> porTipoCliente = new EnumMap<>(TipoCliente.class);
+		for (TipoCliente tipo : TIPOS_CLIENTE) {
+			porTipoCliente.put(tipo, metricas(totais, TIPOS_PRODUTO.length + tipo.ordinal()));
+		}
+		return new AgregadosVendasDTO(janela, porTipoProduto, porTipoCliente);
+	}
+
+	private void adicionar(long agora, int dimensao, long receita, long unidades, long frete, long desconto) {
+		int base = dimensao * METRICAS;
+		segundos.adicionar(agora, base + RECEITA, receita);
+		segundos.adicionar(agora, base + UNIDADES, unidades);
+		segundos.adicionar(agora, base + FRETE, frete);
+		segundos.adicionar(agora, base + DESCONTO, desconto);
+		minutos.adicionar(agora, base + RECEITA, receita);
+		minutos.adicionar(agora, base + UNIDADES, unidades);
+		minutos.adicionar(agora, base + FRETE, frete);
+		minutos.adicionar(agora, base + DESCONTO, desconto);
+	}
+
+	private MetricasVendasDTO metricas(long[] totais, int dimensao) {
+		int base = dimensao * METRICAS;
+		return new MetricasVendasDTO(reais(totais[base + RECEITA]), totais[base + UNIDADES],
+				reais(totais[base + FRETE]), reais(totais[base + DESCONTO]));
+	}
+
+	private static long centavos(BigDecimal valor) {
+		return valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue();
+	}
+
+	private static BigDecimal reais(long centavos) {
+		return BigDecimal.valueOf(centavos, 2);
+	}
+}
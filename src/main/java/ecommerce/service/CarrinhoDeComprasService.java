@@ -1,14 +1,25 @@
 package ecommerce.service;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import ecommerce.dto.CarrinhoResumoDTO;
+import ecommerce.dto.PaginaCarrinhosDTO;
 import ecommerce.entity.CarrinhoDeCompras;
 import ecommerce.entity.Cliente;
 import ecommerce.repository.CarrinhoDeComprasRepository;
 
 @Service
 public class CarrinhoDeComprasService {
+	private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
 	private final CarrinhoDeComprasRepository repository;
 	
 	@Autowired
@@ -19,4 +30,37 @@ public class CarrinhoDeComprasService {
 	public CarrinhoDeCompras buscarPorCarrinhoIdEClienteId(Long carrinhoId, Cliente cliente) {
 		return repository.findByIdAndCliente(carrinhoId, cliente).orElseThrow(() -> new IllegalArgumentException("Carrinho não encontrado."));
 	}
+
+	// Carrinhos sem data ficam fora do histórico: não têm posição na ordem (data, id) do cursor
+	@Transactional(readOnly = true)
+	public PaginaCarrinhosDTO buscarHistorico(Long clienteId, LocalDate aposData, Long aposId, int tamanho) {
+		if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+			throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+		}
+		if ((aposData == null) != (aposId == null)) {
+			throw new IllegalArgumentException("Informe a data e o id do último carrinho da página anterior.");
+		}
+
+		// Busca um registro a mais para saber se existe próxima página
+		PageRequest pagina = PageRequest.of(0, tamanho + 1);
+		List<CarrinhoResumoDTO> carrinhos = aposData == null
+				? repository.buscarHistorico(clienteId, pagina)
+				: repository.buscarHistoricoApos(clienteId, aposData, aposId, pagina);
+
+		if (carrinhos.size() <= tamanho) {
+			return new PaginaCarrinhosDTO(carrinhos, null, null);
+		}
+		List<CarrinhoResumoDTO> resumos = carrinhos.subList(0, tamanho);
+		CarrinhoResumoDTO ultimo = resumos.get(resumos.size() - 1);
+		return new PaginaCarrinhosDTO(resumos, ultimo.data(), ultimo.id());
+	}
+
+	// Percorre o histórico completo sem carregá-lo na memória: a consulta devolve projeções, então
+	// nada fica no contexto de persistência enquanto as linhas são entregues ao consumidor.
+	@Transactional(readOnly = true)
+	public void exportarHistorico(Long clienteId, Consumer<CarrinhoResumoDTO> consumidor) {
+		try (Stream<CarrinhoResumoDTO> carrinhos = repository.streamHistorico(clienteId)) {
+			carrinhos.forEach(consumidor);
+		}
+	}
 }
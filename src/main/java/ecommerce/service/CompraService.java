@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import ecommerce.entity.ItemCompra;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import ecommerce.dto.CompraDTO;
 import ecommerce.dto.DisponibilidadeDTO;
@@ -16,7 +17,10 @@ import ecommerce.entity.CarrinhoDeCompras;
 import ecommerce.entity.Cliente;
 import ecommerce.external.IEstoqueExternal;
 import ecommerce.external.IPagamentoExternal;
-import jakarta.transaction.Transactional;
+import ecommerce.external.Prazo;
+import ecommerce.monitoramento.EventoCompra;
+import ecommerce.monitoramento.EventoEtapaCompra;
+import ecommerce.service.promocao.MotorPromocoes;
 
 @Service
 public class CompraService {
@@ -27,52 +31,144 @@ public class CompraService {
     private final IEstoqueExternal estoqueExternal;
     private final IPagamentoExternal pagamentoExternal;
 
-    @Autowired
+    private final AgregadosVendas agregadosVendas;
+    private final MotorPromocoes motorPromocoes;
+    private final TransactionOperations transacao;
+    private final CompraSingleFlight singleFlight = new CompraSingleFlight();
+
     public CompraService(CarrinhoDeComprasService carrinhoService, ClienteService clienteService,
                          IEstoqueExternal estoqueExternal, IPagamentoExternal pagamentoExternal) {
+        this(carrinhoService, clienteService, estoqueExternal, pagamentoExternal, new AgregadosVendas(),
+                new MotorPromocoes(), TransactionOperations.withoutTransaction());
+    }
+
+    @Autowired
+    public CompraService(CarrinhoDeComprasService carrinhoService, ClienteService clienteService,
+                         IEstoqueExternal estoqueExternal, IPagamentoExternal pagamentoExternal,
+                         AgregadosVendas agregadosVendas, MotorPromocoes motorPromocoes,
+                         TransactionOperations transacao) {
         this.carrinhoService = carrinhoService;
         this.clienteService = clienteService;
 
         this.estoqueExternal = estoqueExternal;
         this.pagamentoExternal = pagamentoExternal;
+
+        this.agregadosVendas = agregadosVendas;
+        this.motorPromocoes = motorPromocoes;
+        this.transacao = transacao;
     }
 
-    @Transactional
     public CompraDTO finalizarCompra(Long carrinhoId, Long clienteId) {
+        // Requisições repetidas para o mesmo carrinho aguardam a compra já em andamento
+        // em vez de repetir a consulta ao estoque, o pagamento e a baixa. Só a requisição
+        // que executa a compra abre a transação: as que aguardam não seguram conexão.
+        return singleFlight.executar(carrinhoId, clienteId, () -> {
+            CompraConcluida concluida = transacao.execute(status -> processarCompra(carrinhoId, clienteId));
+            // Só depois do commit: uma compra desfeita não entra nos agregados, e o líder conta uma vez
+            agregadosVendas.registrar(concluida.carrinho(), concluida.cliente(), concluida.custo());
+            return concluida.compra();
+        });
+    }
+
+    private record CompraConcluida(CompraDTO compra, CarrinhoDeCompras carrinho, Cliente cliente, ResumoCusto custo) {
+    }
+
+    private CompraConcluida processarCompra(Long carrinhoId, Long clienteId) {
+        EventoCompra evento = new EventoCompra();
+        evento.begin();
+        evento.carrinhoId = carrinhoId != null ? carrinhoId : 0L;
+        evento.clienteId = clienteId != null ? clienteId : 0L;
+
+        try {
+            CompraConcluida concluida = executarEtapas(carrinhoId, clienteId, evento);
+            evento.sucesso = true;
+            return concluida;
+        } catch (RuntimeException e) {
+            evento.motivoFalha = e.getMessage();
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.commit();
+            }
+        }
+    }
+
+    private CompraConcluida executarEtapas(Long carrinhoId, Long clienteId, EventoCompra evento) {
+        EventoEtapaCompra etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.CARREGAMENTO, 0);
         Cliente cliente = clienteService.buscarPorId(clienteId);
         CarrinhoDeCompras carrinho = carrinhoService.buscarPorCarrinhoIdEClienteId(carrinhoId, cliente);
+        etapa.concluir();
+
+        int quantidadeItens = carrinho.getItens().size();
+        evento.quantidadeItens = quantidadeItens;
 
         List<Long> produtosIds = carrinho.getItens().stream().map(i -> i.getProduto().getId())
                 .collect(Collectors.toList());
         List<Long> produtosQtds = carrinho.getItens().stream().map(i -> i.getQuantidade()).collect(Collectors.toList());
 
+        etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.DISPONIBILIDADE, quantidadeItens);
         DisponibilidadeDTO disponibilidade = estoqueExternal.verificarDisponibilidade(produtosIds, produtosQtds);
+        evento.duracaoDisponibilidade = etapa.concluir();
 
         if (!disponibilidade.disponivel()) {
             throw new IllegalStateException("Itens fora de estoque.");
         }
 
-        BigDecimal custoTotal = calcularCustoTotal(carrinho, cliente);
+        etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.PRECIFICACAO, quantidadeItens);
+        ResumoCusto custo = calcularResumoCusto(carrinho, cliente);
+        evento.duracaoPrecificacao = etapa.concluir();
+
+        // Com o prazo da requisição esgotado o cliente já desistiu: não autoriza o pagamento
+        Prazo.verificar();
 
-        PagamentoDTO pagamento = pagamentoExternal.autorizarPagamento(cliente.getId(), custoTotal.doubleValue());
+        etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.PAGAMENTO, quantidadeItens);
+        PagamentoDTO pagamento = pagamentoExternal.autorizarPagamento(cliente.getId(), custo.custoTotal().doubleValue());
+        evento.duracaoPagamento = etapa.concluir();
 
         if (!pagamento.autorizado()) {
             throw new IllegalStateException("Pagamento não autorizado.");
         }
 
-        EstoqueBaixaDTO baixaDTO = estoqueExternal.darBaixa(produtosIds, produtosQtds);
+        etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.BAIXA, quantidadeItens);
+        EstoqueBaixaDTO baixaDTO;
+        try {
+            baixaDTO = estoqueExternal.darBaixa(produtosIds, produtosQtds);
+        } catch (RuntimeException e) {
+            // Falha, timeout ou prazo esgotado na baixa: o pagamento já autorizado é desfeito
+            throw cancelarPagamento(cliente.getId(), pagamento.transacaoId(), e);
+        }
+        evento.duracaoBaixa = etapa.concluir();
 
         if (!baixaDTO.sucesso()) {
-            pagamentoExternal.cancelarPagamento(cliente.getId(), pagamento.transacaoId());
-            throw new IllegalStateException("Erro ao dar baixa no estoque.");
+            etapa = EventoEtapaCompra.iniciar(evento.carrinhoId, EventoEtapaCompra.CANCELAMENTO, quantidadeItens);
+            RuntimeException erro = cancelarPagamento(cliente.getId(), pagamento.transacaoId(),
+                    new IllegalStateException("Erro ao dar baixa no estoque."));
+            etapa.concluir();
+            throw erro;
         }
 
         CompraDTO compraDTO = new CompraDTO(true, pagamento.transacaoId(), "Compra finalizada com sucesso.");
 
-        return compraDTO;
+        return new CompraConcluida(compraDTO, carrinho, cliente, custo);
+    }
+
+    // Compensação: roda mesmo com o prazo da requisição esgotado. Uma falha no cancelamento
+    // fica anexada ao erro da compra, que é o que o cliente recebe.
+    private RuntimeException cancelarPagamento(Long clienteId, Long transacaoId, RuntimeException erro) {
+        try (Prazo.Escopo semPrazo = Prazo.suspender()) {
+            pagamentoExternal.cancelarPagamento(clienteId, transacaoId);
+        } catch (RuntimeException falhaCancelamento) {
+            erro.addSuppressed(falhaCancelamento);
+        }
+        return erro;
     }
 
     public BigDecimal calcularCustoTotal(CarrinhoDeCompras carrinho, Cliente cliente) {
+        return calcularResumoCusto(carrinho, cliente).custoTotal();
+    }
+
+    public ResumoCusto calcularResumoCusto(CarrinhoDeCompras carrinho, Cliente cliente) {
         BigDecimal custoProdutos = BigDecimal.ZERO;
         BigDecimal pesoTotal = BigDecimal.ZERO;
 
@@ -87,8 +183,9 @@ public class CompraService {
 
         BigDecimal custoFrete = calcularCustoFrete(pesoTotal, cliente);
         BigDecimal custoTotal = custoProdutos.add(custoFrete);
+        BigDecimal desconto = motorPromocoes.calcularDesconto(carrinho, cliente.getTipo(), custoProdutos);
 
-        return aplicarDescontos(custoTotal, custoProdutos);
+        return new ResumoCusto(custoProdutos, pesoTotal, custoFrete, desconto, custoTotal.subtract(desconto));
     }
 
     private BigDecimal calcularCustoFrete(BigDecimal pesoTotal, Cliente cliente) {
@@ -119,15 +216,4 @@ public class CompraService {
                 return custoFrete;
         }
     }
-
-    private BigDecimal aplicarDescontos(BigDecimal custoTotal, BigDecimal custoProdutos) {
-        BigDecimal desconto = BigDecimal.ZERO;
-        if (custoProdutos.compareTo(BigDecimal.valueOf(1000)) > 0) {
-            desconto = custoProdutos.multiply(BigDecimal.valueOf(0.2));
-        } else if (custoProdutos.compareTo(BigDecimal.valueOf(500)) > 0) {
-            desconto = custoProdutos.multiply(BigDecimal.valueOf(0.1));
-        }
-        BigDecimal result = custoTotal.subtract(desconto);
-        return result;
-    }
 }
@@ -0,0 +1,139 @@
+package ecommerce.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import ecommerce.dto.CompraDTO;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+
+/*
+ * Agrupa finalizações simultâneas do mesmo carrinho: a primeira requisição de
+ * uma chave (carrinhoId, clienteId) executa a compra e as demais aguardam o
+ * mesmo resultado. O registro é dividido em faixas com travas independentes e a
+ * entrada é removida assim que a execução termina. Se a compra aguardada esgota
+ * o prazo da requisição líder, as demais tentam de novo dentro do próprio prazo.
+ */
+public class CompraSingleFlight {
+
+	private static final int FAIXAS_PADRAO = 64;
+
+	private final Map<Chave, CompletableFuture<CompraDTO>>[] faixas;
+	private final AtomicInteger aguardando = new AtomicInteger();
+
+	public CompraSingleFlight() {
+		this(FAIXAS_PADRAO);
+	}
+
+	@SuppressWarnings("unchecked")
+	public CompraSingleFlight(int quantidadeFaixas) {
+		int tamanho = Integer.highestOneBit(Math.max(1, quantidadeFaixas - 1) << 1);
+		this.faixas = new Map[tamanho];
+		for (int i = 0; i < tamanho; i++) {
+			faixas[i] = new HashMap<>();
+		}
+	}
+
+	public CompraDTO executar(Long carrinhoId, Long clienteId, Supplier<CompraDTO> compra) {
+		Chave chave = new Chave(carrinhoId, clienteId);
+		Map<Chave, CompletableFuture<CompraDTO>> faixa = faixaDa(chave);
+
+		while (true) {
+			CompletableFuture<CompraDTO> emAndamento;
+			CompletableFuture<CompraDTO> proprio = null;
+			synchronized (faixa) {
+				emAndamento = faixa.get(chave);
+				if (emAndamento == null) {
+					proprio = new CompletableFuture<>();
+					faixa.put(chave, proprio);
+				}
+			}
+
+			if (proprio == null) {
+				try {
+					return aguardar(emAndamento);
+				} catch (PrazoExpiradoException e) {
+					// O prazo esgotado pode ser o da requisição líder: com tempo próprio, tenta de novo
+					if (Prazo.restanteNanos() <= 0) {
+						throw e;
+					}
+					continue;
+				}
+			}
+
+			// A entrada sai do registro antes de completar: quem repete após uma falha não a encontra mais
+			CompraDTO resultado;
+			try {
+				resultado = compra.get();
+			} catch (RuntimeException | Error e) {
+				remover(faixa, chave, proprio);
+				proprio.completeExceptionally(e);
+				throw e;
+			}
+			remover(faixa, chave, proprio);
+			proprio.complete(resultado);
+			return resultado;
+		}
+	}
+
+	private static void remover(Map<Chave, CompletableFuture<CompraDTO>> faixa, Chave chave,
+			CompletableFuture<CompraDTO> proprio) {
+		synchronized (faixa) {
+			faixa.remove(chave, proprio);
+		}
+	}
+
+	// Requisições aguardando a compra de outra
+	public int aguardando() {
+		return aguardando.get();
+	}
+
+	public int emAndamento() {
+		int total = 0;
+		for (Map<Chave, CompletableFuture<CompraDTO>> faixa : faixas) {
+			synchronized (faixa) {
+				total += faixa.size();
+			}
+		}
+		return total;
+	}
+
+	private Map<Chave, CompletableFuture<CompraDTO>> faixaDa(Chave chave) {
+		int h = chave.hashCode();
+		h ^= (h >>> 16);
+		return faixas[h & (faixas.length - 1)];
+	}
+
+	private CompraDTO aguardar(CompletableFuture<CompraDTO> emAndamento) {
+		aguardando.incrementAndGet();
+		try {
+			// Quem aguarda respeita o próprio prazo, não o da requisição que executa a compra
+			return Prazo.aguardar(emAndamento);
+		} catch (TimeoutException e) {
+			throw new PrazoExpiradoException("Prazo da requisição esgotado aguardando a compra em andamento.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Compra interrompida.", e);
+		} catch (ExecutionException | CompletionException e) {
+			Throwable causa = e.getCause();
+			if (causa instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (causa instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(causa);
+		} finally {
+			aguardando.decrementAndGet();
+		}
+	}
+
+	private record Chave(Long carrinhoId, Long clienteId) {
+	}
+}
@@ -0,0 +1,7 @@
+package ecommerce.service;
+
+import java.math.BigDecimal;
+
+public record ResumoCusto(BigDecimal custoProdutos, BigDecimal pesoTotal, BigDecimal custoFrete, BigDecimal desconto,
+		BigDecimal custoTotal) {
+}
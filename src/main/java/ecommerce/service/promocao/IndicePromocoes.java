@@ -0,0 +1,88 @@
+package ecommerce.service.promocao;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoProduto;
+
+/*
+ * Promoções ativas de um tipo de cliente compiladas em índices. Em cada chave fica
+ * só o maior percentual; os limiares de valor ficam ordenados com o máximo
+ * acumulado, de modo que a melhor promoção de valor sai de uma busca binária.
+ */
+final class IndicePromocoes {
+
+	private final Map<Long, BigDecimal> porProduto = new HashMap<>();
+	private final EnumMap<TipoProduto, BigDecimal> porTipoProduto = new EnumMap<>(TipoProduto.class);
+	private final BigDecimal[] limiares;
+	private final BigDecimal[] melhorAteLimiar;
+
+	IndicePromocoes(List<Promocao> promocoes) {
+		TreeMap<BigDecimal, BigDecimal> porLimiar = new TreeMap<>();
+		for (Promocao promocao : promocoes) {
+			switch (promocao.tipo()) {
+				case PRODUTO:
+					porProduto.merge(promocao.produtoId(), promocao.percentual(), IndicePromocoes::maior);
+					break;
+				case TIPO_PRODUTO:
+					porTipoProduto.merge(promocao.tipoProduto(), promocao.percentual(), IndicePromocoes::maior);
+					break;
+				case VALOR_CARRINHO:
+				default:
+					porLimiar.merge(promocao.valorMinimo(), promocao.percentual(), IndicePromocoes::maior);
+					break;
+			}
+		}
+
+		limiares = new BigDecimal[porLimiar.size()];
+		melhorAteLimiar = new BigDecimal[porLimiar.size()];
+		int i = 0;
+		BigDecimal melhor = null;
+		for (Map.Entry<BigDecimal, BigDecimal> entrada : porLimiar.entrySet()) {
+			melhor = melhor == null ? entrada.getValue() : maior(melhor, entrada.getValue());
+			limiares[i] = entrada.getKey();
+			melhorAteLimiar[i] = melhor;
+			i++;
+		}
+	}
+
+	boolean temPromocoesPorItem() {
+		return !porProduto.isEmpty() || !porTipoProduto.isEmpty();
+	}
+
+	// Maior percentual entre as promoções do produto e do tipo dele; null se não houver
+	BigDecimal percentualDoItem(Produto produto) {
+		BigDecimal doProduto = porProduto.get(produto.getId());
+		BigDecimal doTipo = produto.getTipo() != null ? porTipoProduto.get(produto.getTipo()) : null;
+		if (doProduto == null) {
+			return doTipo;
+		}
+		return doTipo == null ? doProduto : maior(doProduto, doTipo);
+	}
+
+	// Maior percentual entre as promoções com valorMinimo < custoProdutos; null se não houver
+	BigDecimal percentualDoValor(BigDecimal custoProdutos) {
+		int inicio = 0;
+		int fim = limiares.length - 1;
+		int ultimo = -1;
+		while (inicio <= fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (limiares[meio].compareTo(custoProdutos) < 0) {
+				ultimo = meio;
+				inicio = meio + 1;
+			} else {
+				fim = meio - 1;
+			}
+		}
+		return ultimo < 0 ? null : melhorAteLimiar[ultimo];
+	}
+
+	private static BigDecimal maior(BigDecimal a, BigDecimal b) {
+		return b.compareTo(a) > 0 ? b : a;
+	}
+}
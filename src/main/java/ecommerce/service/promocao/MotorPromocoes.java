@@ -0,0 +1,167 @@
+package ecommerce.service.promocao;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.TipoCliente;
+
+/*
+ * Motor de promoções. As regras ativas ficam compiladas em um snapshot imutável
+ * com um índice por TipoCliente; alterações compilam um snapshot novo e o trocam
+ * atomicamente, sem bloquear as compras em andamento. O snapshot guarda o próximo
+ * instante em que alguma regra começa ou termina e é recompilado ao passar dele.
+ *
+ * Desconto de um carrinho: a melhor promoção de valor do carrinho aplicada sobre
+ * o custo dos produtos, mais a melhor promoção por produto ou tipo de produto de
+ * cada item aplicada sobre o valor do item, limitado ao custo dos produtos.
+ */
+@Component
+public class MotorPromocoes {
+
+	private record Snapshot(List<Promocao> regras, EnumMap<TipoCliente, IndicePromocoes> porTipoCliente,
+			IndicePromocoes semTipoCliente, long validoAte) {
+	}
+
+	private final AtomicReference<Snapshot> snapshot;
+	private final LongSupplier relogio;
+
+	public MotorPromocoes() {
+		this(padrao(), System::currentTimeMillis);
+	}
+
+	public MotorPromocoes(List<Promocao> regras, LongSupplier relogio) {
+		this.relogio = relogio;
+		this.snapshot = new AtomicReference<>(compilar(copiar(regras), relogio.getAsLong()));
+	}
+
+	// Regras equivalentes às faixas fixas de 10% acima de R$500 e 20% acima de R$1000
+	public static List<Promocao> padrao() {
+		return List.of(Promocao.porValorCarrinho("valor-acima-500", BigDecimal.valueOf(500), BigDecimal.valueOf(0.1)),
+				Promocao.porValorCarrinho("valor-acima-1000", BigDecimal.valueOf(1000), BigDecimal.valueOf(0.2)));
+	}
+
+	public BigDecimal calcularDesconto(CarrinhoDeCompras carrinho, TipoCliente tipoCliente, BigDecimal custoProdutos) {
+		Snapshot atual = atual();
+		IndicePromocoes indice = tipoCliente != null ? atual.porTipoCliente().get(tipoCliente) : atual.semTipoCliente();
+
+		BigDecimal desconto = BigDecimal.ZERO;
+		BigDecimal percentualValor = indice.percentualDoValor(custoProdutos);
+		if (percentualValor != null) {
+			desconto = custoProdutos.multiply(percentualValor);
+		}
+
+		if (indice.temPromocoesPorItem()) {
+			for (ItemCompra item : carrinho.getItens()) {
+				BigDecimal percentual = indice.percentualDoItem(item.getProduto());
+				if (percentual != null) {
+					BigDecimal valorItem = item.getProduto().getPreco().multiply(BigDecimal.valueOf(item.getQuantidade()));
+					desconto = desconto.add(valorItem.multiply(percentual));
+				}
+			}
+			if (desconto.compareTo(custoProdutos) > 0) {
+				desconto = custoProdutos;
+			}
+		}
+
+		return desconto;
+	}
+
+	public List<Promocao> listar() {
+		return atual().regras();
+	}
+
+	public void substituir(List<Promocao> regras) {
+		List<Promocao> copia = copiar(regras);
+		snapshot.set(compilar(copia, relogio.getAsLong()));
+	}
+
+	// Inclui a promoção ou substitui a de mesmo id
+	public void salvar(Promocao promocao) {
+		if (promocao == null) {
+			throw new IllegalArgumentException("Promoção não informada.");
+		}
+		snapshot.updateAndGet(atual -> {
+			List<Promocao> regras = new ArrayList<>(atual.regras().size() + 1);
+			for (Promocao regra : atual.regras()) {
+				if (!regra.id().equals(promocao.id())) {
+					regras.add(regra);
+				}
+			}
+			regras.add(promocao);
+			return compilar(List.copyOf(regras), relogio.getAsLong());
+		});
+	}
+
+	public boolean remover(String id) {
+		Snapshot anterior = snapshot.getAndUpdate(atual -> {
+			List<Promocao> regras = new ArrayList<>(atual.regras());
+			return regras.removeIf(regra -> regra.id().equals(id))
+					? compilar(List.copyOf(regras), relogio.getAsLong())
+					: atual;
+		});
+		return anterior.regras().stream().anyMatch(regra -> regra.id().equals(id));
+	}
+
+	private Snapshot atual() {
+		Snapshot atual = snapshot.get();
+		long agora = relogio.getAsLong();
+		if (agora < atual.validoAte()) {
+			return atual;
+		}
+		Snapshot recompilado = compilar(atual.regras(), agora);
+		return snapshot.compareAndSet(atual, recompilado) ? recompilado : atual();
+	}
+
+	private static List<Promocao> copiar(List<Promocao> regras) {
+		if (regras == null) {
+			throw new IllegalArgumentException("Lista de promoções não informada.");
+		}
+		Set<String> ids = new HashSet<>();
+		for (Promocao regra : regras) {
+			if (regra == null || !ids.add(regra.id())) {
+				throw new IllegalArgumentException("Promoção nula ou com id repetido.");
+			}
+		}
+		return List.copyOf(regras);
+	}
+
+	private static Snapshot compilar(List<Promocao> regras, long agora) {
+		List<Promocao> ativas = new ArrayList<>();
+		long validoAte = Long.MAX_VALUE;
+		for (Promocao regra : regras) {
+			if (regra.ativaEm(agora)) {
+				ativas.add(regra);
+			}
+			validoAte = Math.min(validoAte, proximaMudanca(regra, agora));
+		}
+
+		EnumMap<TipoCliente, IndicePromocoes> porTipoCliente = new EnumMap<>(TipoCliente.class);
+		for (TipoCliente tipoCliente : TipoCliente.values()) {
+			porTipoCliente.put(tipoCliente, new IndicePromocoes(ativas.stream().filter(p -> p.aplicavelA(tipoCliente)).toList()));
+		}
+		IndicePromocoes semTipoCliente = new IndicePromocoes(ativas.stream().filter(p -> p.tipoCliente() == null).toList());
+
+		return new Snapshot(regras, porTipoCliente, semTipoCliente, validoAte);
+	}
+
+	private static long proximaMudanca(Promocao regra, long agora) {
+		long proxima = Long.MAX_VALUE;
+		for (Instant limite : new Instant[] { regra.inicio(), regra.fim() }) {
+			if (limite != null && limite.toEpochMilli() > agora) {
+				proxima = Math.min(proxima, limite.toEpochMilli());
+			}
+		}
+		return proxima;
+	}
+}
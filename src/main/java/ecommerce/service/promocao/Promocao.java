@@ -0,0 +1,78 @@
+package ecommerce.service.promocao;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+/*
+ * Regra de desconto percentual. Conforme o tipo, vale para um produto, para um
+ * tipo de produto ou para carrinhos cujo valor dos produtos seja maior que
+ * valorMinimo. tipoCliente, inicio (inclusivo) e fim (exclusivo) são opcionais.
+ */
+public record Promocao(String id, TipoPromocao tipo, Long produtoId, TipoProduto tipoProduto, BigDecimal valorMinimo,
+		TipoCliente tipoCliente, BigDecimal percentual, Instant inicio, Instant fim) {
+
+	public Promocao {
+		if (id == null || id.isBlank()) {
+			throw new IllegalArgumentException("A promoção precisa de um id.");
+		}
+		if (tipo == null) {
+			throw new IllegalArgumentException("O tipo da promoção é obrigatório.");
+		}
+		if (percentual == null || percentual.signum() <= 0 || percentual.compareTo(BigDecimal.ONE) > 0) {
+			throw new IllegalArgumentException("O percentual deve estar entre 0 (exclusivo) e 1.");
+		}
+		if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+			throw new IllegalArgumentException("O início da promoção deve ser anterior ao fim.");
+		}
+		switch (tipo) {
+			case PRODUTO:
+				if (produtoId == null) {
+					throw new IllegalArgumentException("Promoção por produto sem produtoId.");
+				}
+				break;
+			case TIPO_PRODUTO:
+				if (tipoProduto == null) {
+					throw new IllegalArgumentException("Promoção por tipo de produto sem tipoProduto.");
+				}
+				break;
+			case VALOR_CARRINHO:
+			default:
+				if (valorMinimo == null || valorMinimo.signum() < 0) {
+					throw new IllegalArgumentException("Promoção por valor do carrinho sem valorMinimo.");
+				}
+				break;
+		}
+	}
+
+	public static Promocao porProduto(String id, Long produtoId, BigDecimal percentual) {
+		return new Promocao(id, TipoPromocao.PRODUTO, produtoId, null, null, null, percentual, null, null);
+	}
+
+	public static Promocao porTipoProduto(String id, TipoProduto tipoProduto, BigDecimal percentual) {
+		return new Promocao(id, TipoPromocao.TIPO_PRODUTO, null, tipoProduto, null, null, percentual, null, null);
+	}
+
+	public static Promocao porValorCarrinho(String id, BigDecimal valorMinimo, BigDecimal percentual) {
+		return new Promocao(id, TipoPromocao.VALOR_CARRINHO, null, null, valorMinimo, null, percentual, null, null);
+	}
+
+	public Promocao paraCliente(TipoCliente tipoCliente) {
+		return new Promocao(id, tipo, produtoId, tipoProduto, valorMinimo, tipoCliente, percentual, inicio, fim);
+	}
+
+	public Promocao vigente(Instant inicio, Instant fim) {
+		return new Promocao(id, tipo, produtoId, tipoProduto, valorMinimo, tipoCliente, percentual, inicio, fim);
+	}
+
+	boolean aplicavelA(TipoCliente cliente) {
+		return tipoCliente == null || tipoCliente == cliente;
+	}
+
+	boolean ativaEm(long agoraMillis) {
+		return (inicio == null || inicio.toEpochMilli() <= agoraMillis)
+				&& (fim == null || fim.toEpochMilli() > agoraMillis);
+	}
+}
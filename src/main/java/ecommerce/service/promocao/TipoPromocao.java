@@ -0,0 +1,7 @@
+package ecommerce.service.promocao;
+
+public enum TipoPromocao {
+	PRODUTO,
+	TIPO_PRODUTO,
+	VALOR_CARRINHO;
+}
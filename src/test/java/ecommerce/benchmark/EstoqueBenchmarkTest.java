@@ -0,0 +1,99 @@
+package ecommerce.benchmark;
+
+import ecommerce.CompraApplication;
+import ecommerce.external.EstoqueBanco;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.fake.EstoqueSimulado;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Executar com: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+public class EstoqueBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final long DURACAO_MS = 5_000;
+    private static final long AQUECIMENTO_MS = 1_000;
+
+    @Test
+    public void testVazaoBancoVersusMemoria() throws Exception {
+        // Os dois lados partem de um estoque que não se esgota: toda baixa percorre o caminho completo
+        EstoqueSimulado estoqueSimulado = new EstoqueSimulado();
+        estoqueSimulado.definirQuantidade(1L, Long.MAX_VALUE / 2);
+        estoqueSimulado.definirQuantidade(3L, Long.MAX_VALUE / 2);
+        double memoria = medir(estoqueSimulado, 1L, 3L);
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CompraApplication.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:estoque_benchmark;DB_CLOSE_DELAY=-1",
+                        "server.port=0",
+                        "ecommerce.estoque.modo=banco",
+                        "ecommerce.estoque.banco.max-tentativas=50")
+                .run()) {
+            EstoqueBanco estoqueBanco = contexto.getBean(EstoqueBanco.class);
+            estoqueBanco.definirQuantidade(1L, Long.MAX_VALUE / 2);
+            estoqueBanco.definirQuantidade(3L, Long.MAX_VALUE / 2);
+            estoqueBanco.definirQuantidade(4L, Long.MAX_VALUE / 2);
+
+            double banco = medir(estoqueBanco, 3L, 4L);
+            double bancoContencao = medir(estoqueBanco, 1L, 1L);
+
+            System.out.printf("Baixas/s com %d threads: memoria=%.0f | banco=%.0f | banco (mesmo produto)=%.0f%n",
+                    THREADS, memoria, banco, bancoContencao);
+            assertTrue(banco > 0 && bancoContencao > 0);
+        }
+    }
+
+    /*
+     * Metade das threads baixa do produto A e metade do B; com A == B todas
+     * disputam a mesma linha. Só as baixas bem-sucedidas contam, e uma falha
+     * interrompe a medição: com o estoque esgotado a vazão mediria a recusa, que é
+     * o caminho mais barato, e a comparação entre memória e banco perderia o sentido.
+     */
+    private double medir(IEstoqueExternal estoque, long produtoA, long produtoB) throws Exception {
+        executar(estoque, produtoA, produtoB, AQUECIMENTO_MS);
+        long baixas = executar(estoque, produtoA, produtoB, DURACAO_MS);
+        return baixas * 1000.0 / DURACAO_MS;
+    }
+
+    private long executar(IEstoqueExternal estoque, long produtoA, long produtoB, long duracaoMs) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> resultados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Long> ids = List.of(t % 2 == 0 ? produtoA : produtoB);
+            List<Long> quantidades = List.of(1L);
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                long fim = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracaoMs);
+                long baixas = 0;
+                while (System.nanoTime() < fim) {
+                    if (!estoque.darBaixa(ids, quantidades).sucesso()) {
+                        throw new IllegalStateException("Baixa recusada durante o benchmark: estoque esgotado.");
+                    }
+                    baixas++;
+                }
+                return baixas;
+            }));
+        }
+
+        largada.countDown();
+        long total = 0;
+        for (Future<Long> resultado : resultados) {
+            total += resultado.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ecommerce.dto.CompraDTO;
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.compacto.BufferCompacto;
+import ecommerce.dto.compacto.CodecCompacto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Executar com: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+public class FormatoCompactoBenchmarkTest {
+
+    private static final int AQUECIMENTO = 200_000;
+    private static final int ITERACOES = 1_000_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCompactoVersusJson() throws Exception {
+        comparar("CompraDTO", new CompraDTO(true, 7_205_759_403_792_793L, "Compra finalizada com sucesso."));
+        comparar("DisponibilidadeDTO", new DisponibilidadeDTO(false, Arrays.asList(12L, 345L, 6789L, 101_112L)));
+    }
+
+    private void comparar(String nome, Object dto) throws Exception {
+        int bytesJson = objectMapper.writeValueAsBytes(dto).length;
+        int bytesCompacto = compacto(dto);
+
+        long nanosJson = medir(() -> objectMapper.writeValueAsBytes(dto).length);
+        long nanosCompacto = medir(() -> compacto(dto));
+
+        System.out.printf("%s: json=%d bytes, %.1f ns/op | compacto=%d bytes, %.1f ns/op%n", nome, bytesJson,
+                (double) nanosJson / ITERACOES, bytesCompacto, (double) nanosCompacto / ITERACOES);
+
+        assertTrue(bytesCompacto < bytesJson);
+    }
+
+    private int compacto(Object dto) {
+        BufferCompacto buffer = BufferCompacto.local();
+        CodecCompacto.codificar(dto, buffer);
+        return buffer.tamanho();
+    }
+
+    private long medir(Operacao operacao) throws Exception {
+        long soma = 0;
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            soma += operacao.executar();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACOES; i++) {
+            soma += operacao.executar();
+        }
+        long duracao = System.nanoTime() - inicio;
+        assertTrue(soma > 0);
+        return duracao;
+    }
+
+    @FunctionalInterface
+    private interface Operacao {
+        int executar() throws Exception;
+    }
+}
@@ -0,0 +1,111 @@
+package ecommerce.benchmark;
+
+import ecommerce.external.EstoqueComHedge;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.fake.DistribuicaoLatencia;
+import ecommerce.external.fake.EstoqueSimulado;
+import ecommerce.external.fake.PropriedadesSimulacao;
+import ecommerce.external.fake.SimuladorDegradacao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Executar com: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+public class HedgeBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int AQUECIMENTO_POR_THREAD = 20;
+    private static final int CONSULTAS_POR_THREAD = 250;
+
+    private static final List<Long> IDS = List.of(1L, 2L, 3L);
+    private static final List<Long> QUANTIDADES = List.of(1L, 1L, 1L);
+
+    @Test
+    public void testHedgeReduzP99() throws Exception {
+        DistribuicaoLatencia latencia = DistribuicaoLatencia.histograma(histogramaComCauda());
+        IEstoqueExternal simulado = new EstoqueSimulado(
+                new SimuladorDegradacao(latencia, new PropriedadesSimulacao(), System::nanoTime));
+
+        ExecutorService executorHedge = Executors.newCachedThreadPool();
+        try {
+            EstoqueComHedge comHedge = new EstoqueComHedge(simulado, executorHedge, 0.95,
+                    TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(1), 0.1);
+
+            long[] semHedge = medir(simulado);
+            long[] hedge = medir(comHedge);
+
+            System.out.printf("Sem hedge: p50=%.1f ms p99=%.1f ms | com hedge: p50=%.1f ms p99=%.1f ms, "
+                    + "atraso do hedge=%.1f ms, hedges=%d (%d venceram)%n",
+                    ms(percentil(semHedge, 0.5)), ms(percentil(semHedge, 0.99)),
+                    ms(percentil(hedge, 0.5)), ms(percentil(hedge, 0.99)),
+                    ms(comHedge.getAtrasoHedgeNanos()), comHedge.getHedgesEnviados(), comHedge.getHedgesVencedores());
+
+            assertTrue(percentil(hedge, 0.99) < percentil(semHedge, 0.99));
+        } finally {
+            executorHedge.shutdownNow();
+        }
+    }
+
+    // 97% das chamadas entre 3 e 7 ms e 3% em 150 ms: o p99 sem hedge cai na cauda
+    private static long[] histogramaComCauda() {
+        Random random = new Random(1);
+        long[] amostras = new long[1000];
+        for (int i = 0; i < amostras.length; i++) {
+            double ms = i < 30 ? 150 : 3 + 4 * random.nextDouble();
+            amostras[i] = (long) (ms * 1_000_000);
+        }
+        return amostras;
+    }
+
+    private long[] medir(IEstoqueExternal estoque) throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                resultados.add(clientes.submit(() -> {
+                    for (int i = 0; i < AQUECIMENTO_POR_THREAD; i++) {
+                        estoque.verificarDisponibilidade(IDS, QUANTIDADES);
+                    }
+                    long[] latencias = new long[CONSULTAS_POR_THREAD];
+                    for (int i = 0; i < latencias.length; i++) {
+                        long inicio = System.nanoTime();
+                        estoque.verificarDisponibilidade(IDS, QUANTIDADES);
+                        latencias[i] = System.nanoTime() - inicio;
+                    }
+                    return latencias;
+                }));
+            }
+
+            long[] todas = new long[THREADS * CONSULTAS_POR_THREAD];
+            int i = 0;
+            for (Future<long[]> resultado : resultados) {
+                for (long latencia : resultado.get()) {
+                    todas[i++] = latencia;
+                }
+            }
+            Arrays.sort(todas);
+            return todas;
+        } finally {
+            clientes.shutdown();
+        }
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(p * ordenadas.length) - 1)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
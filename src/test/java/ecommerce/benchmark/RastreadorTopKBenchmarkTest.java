@@ -0,0 +1,96 @@
+package ecommerce.benchmark;
+
+import ecommerce.monitoramento.RastreadorTopK;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Custo por item registrado no rastreador de produtos quentes, com a
+ * configuração padrão (sketch 4 x 2048, K = 20, 256 candidatos). O tráfego é
+ * concentrado: 80% dos itens em 20 produtos e o resto espalhado por 100 mil.
+ */
+// Executar com: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+public class RastreadorTopKBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int AQUECIMENTO = 500_000;
+    private static final int ITERACOES = 2_000_000;
+    private static final long ORCAMENTO_BYTES_POR_ITEM = 64;
+
+    private final long[] produtos = produtos(1 << 16);
+
+    @Test
+    public void testCustoPorItem() throws Exception {
+        RastreadorTopK rastreador = new RastreadorTopK(60, 4, 2048, 20, 256, () -> 0L);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        registrar(rastreador, AQUECIMENTO);
+        long bytesAntes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long inicio = System.nanoTime();
+        registrar(rastreador, ITERACOES);
+        long nanos = System.nanoTime() - inicio;
+        long bytesPorItem = (threadMXBean.getThreadAllocatedBytes(threadId) - bytesAntes) / ITERACOES;
+
+        double nanosConcorrente = medirConcorrente(new RastreadorTopK(60, 4, 2048, 20, 256, () -> 0L));
+
+        System.out.printf("RastreadorTopK: 1 thread=%.1f ns/item, %d bytes/item | %d threads=%.1f ns/item por thread%n",
+                (double) nanos / ITERACOES, bytesPorItem, THREADS, nanosConcorrente);
+
+        assertTrue(bytesPorItem <= ORCAMENTO_BYTES_POR_ITEM,
+                "registrar alocou " + bytesPorItem + " bytes/item (orçamento " + ORCAMENTO_BYTES_POR_ITEM + ")");
+    }
+
+    private double medirConcorrente(RastreadorTopK rastreador) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Long>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                resultados.add(executor.submit(() -> {
+                    registrar(rastreador, AQUECIMENTO);
+                    largada.await();
+                    long inicio = System.nanoTime();
+                    registrar(rastreador, ITERACOES);
+                    return System.nanoTime() - inicio;
+                }));
+            }
+            largada.countDown();
+            long total = 0;
+            for (Future<Long> resultado : resultados) {
+                total += resultado.get(2, TimeUnit.MINUTES);
+            }
+            return (double) total / THREADS / ITERACOES;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void registrar(RastreadorTopK rastreador, int itens) {
+        for (int i = 0; i < itens; i++) {
+            rastreador.registrar(produtos[i & (produtos.length - 1)], 1);
+        }
+    }
+
+    private static long[] produtos(int quantidade) {
+        Random random = new Random(3);
+        long[] produtos = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            produtos[i] = random.nextInt(10) < 8 ? 1 + random.nextInt(20) : 1_000 + random.nextInt(100_000);
+        }
+        return produtos;
+    }
+}
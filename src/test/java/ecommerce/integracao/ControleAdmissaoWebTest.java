@@ -0,0 +1,132 @@
+package ecommerce.integracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import ecommerce.controller.admissao.LimiteConcorrenciaAdaptativo;
+import ecommerce.dto.CompraDTO;
+import ecommerce.service.CompraService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.RequiredSearch;
+
+/*
+ * Controle de admissão do /finalizar pela pilha MVC completa. O limite de
+ * concorrência fica fixo em 1 e o bucket de cada cliente tem 2 fichas que quase
+ * não se repõem, então as rejeições são determinísticas. Os contadores são
+ * compartilhados pelo contexto: os testes comparam diferenças e cada um usa um
+ * cliente próprio.
+ */
+@SpringBootTest(properties = {
+		"ecommerce.admissao.concorrencia.limite-inicial=1",
+		"ecommerce.admissao.concorrencia.limite-minimo=1",
+		"ecommerce.admissao.concorrencia.limite-maximo=1",
+		"ecommerce.admissao.cliente.capacidade=2",
+		"ecommerce.admissao.cliente.requisicoes-por-segundo=0.001" })
+@AutoConfigureMockMvc
+public class ControleAdmissaoWebTest {
+
+	private static final String MENSAGEM = "Muitas requisições. Tente novamente mais tarde.";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private LimiteConcorrenciaAdaptativo limiteConcorrencia;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private CompraService compraService;
+
+	@BeforeEach
+	public void setup() {
+		when(compraService.finalizarCompra(anyLong(), anyLong()))
+				.thenReturn(new CompraDTO(true, 1L, "Compra finalizada com sucesso."));
+	}
+
+	@Test
+	public void testClienteSemFichasRecebe429ComRetryAfter() throws Exception {
+		double admitidasAntes = contador("admitida", null);
+		double rejeitadasAntes = contador("rejeitada", "cliente");
+
+		finalizar(101L).andExpect(status().isOk());
+		finalizar(101L).andExpect(status().isOk());
+		MvcResult resultado = esperarRejeicao(finalizar(101L));
+
+		// A 0,001 ficha por segundo a próxima ficha leva ~1000 s
+		long retryAfter = Long.parseLong(resultado.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+		assertThat(retryAfter).isBetween(1L, 1000L);
+		assertThat(contador("admitida", null) - admitidasAntes).isEqualTo(2d);
+		assertThat(contador("rejeitada", "cliente") - rejeitadasAntes).isEqualTo(1d);
+		assertThat(limiteConcorrencia.getEmAndamento()).isZero();
+
+		// Outro cliente tem o próprio bucket
+		finalizar(102L).andExpect(status().isOk());
+	}
+
+	@Test
+	public void testConcorrenciaSaturadaRejeitaAntesDeConsumirAFichaDoCliente() throws Exception {
+		double admitidasAntes = contador("admitida", null);
+		double porClienteAntes = contador("rejeitada", "cliente");
+		double porConcorrenciaAntes = contador("rejeitada", "concorrencia");
+
+		// Ocupa a única vaga, como uma compra em andamento
+		assertThat(limiteConcorrencia.tentarAdquirir()).isTrue();
+		try {
+			MvcResult resultado = esperarRejeicao(finalizar(201L));
+			assertThat(resultado.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		} finally {
+			limiteConcorrencia.devolver();
+		}
+		assertThat(contador("rejeitada", "concorrencia") - porConcorrenciaAntes).isEqualTo(1d);
+
+		// A rejeição por concorrência não gastou ficha: o cliente ainda tem as duas
+		finalizar(201L).andExpect(status().isOk());
+		finalizar(201L).andExpect(status().isOk());
+		esperarRejeicao(finalizar(201L));
+
+		assertThat(contador("admitida", null) - admitidasAntes).isEqualTo(2d);
+		assertThat(contador("rejeitada", "cliente") - porClienteAntes).isEqualTo(1d);
+		assertThat(contador("rejeitada", "concorrencia") - porConcorrenciaAntes).isEqualTo(1d);
+		assertThat(limiteConcorrencia.getEmAndamento()).isZero();
+	}
+
+	private ResultActions finalizar(long clienteId) throws Exception {
+		return mockMvc.perform(post("/finalizar").param("carrinhoId", "1").param("clienteId", String.valueOf(clienteId)));
+	}
+
+	private MvcResult esperarRejeicao(ResultActions acoes) throws Exception {
+		return acoes.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.sucesso").value(false))
+				.andExpect(jsonPath("$.transacaoPagamentoId").value(nullValue()))
+				.andExpect(jsonPath("$.mensagem").value(MENSAGEM))
+				.andReturn();
+	}
+
+	private double contador(String resultado, String motivo) {
+		RequiredSearch busca = meterRegistry.get("compra.admissao").tag("resultado", resultado);
+		return (motivo == null ? busca : busca.tag("motivo", motivo)).counter().count();
+	}
+}
@@ -0,0 +1,201 @@
+package ecommerce.integracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ecommerce.CompraApplication;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.external.EstoqueBanco;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.repository.CarrinhoDeComprasRepository;
+import ecommerce.repository.ClienteRepository;
+import ecommerce.repository.EstoqueProdutoRepository;
+import ecommerce.repository.ProdutoRepository;
+import ecommerce.service.CompraService;
+
+/*
+ * Dois contextos da aplicação (dois "nós") apontando para o mesmo H2 em modo
+ * servidor disputam o mesmo estoque. Nenhuma venda pode passar do estoque.
+ */
+public class EstoqueBancoMultiNoTest {
+
+	private static final int THREADS_POR_NO = 8;
+	private static final int COMPRAS_POR_THREAD = 150;
+
+	private static Server servidor;
+	private static ConfigurableApplicationContext no1;
+	private static ConfigurableApplicationContext no2;
+
+	@BeforeAll
+	public static void iniciar() throws Exception {
+		int porta;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			porta = socket.getLocalPort();
+		}
+		servidor = Server.createTcpServer("-tcpPort", String.valueOf(porta), "-ifNotExists").start();
+		String url = "jdbc:h2:tcp://localhost:" + porta + "/mem:estoque_multi_no;DB_CLOSE_DELAY=-1";
+
+		no1 = iniciarNo(url);
+		no2 = iniciarNo(url);
+	}
+
+	private static ConfigurableApplicationContext iniciarNo(String url) {
+		return new SpringApplicationBuilder(CompraApplication.class)
+				.properties("spring.datasource.url=" + url,
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.jpa.hibernate.ddl-auto=update",
+						"server.port=0",
+						"ecommerce.estoque.modo=banco",
+						"ecommerce.estoque.banco.max-tentativas=100",
+						"ecommerce.pagamento.simulado.taxa-aprovacao=1")
+				.run();
+	}
+
+	@AfterAll
+	public static void encerrar() {
+		if (no1 != null) {
+			no1.close();
+		}
+		if (no2 != null) {
+			no2.close();
+		}
+		if (servidor != null) {
+			servidor.stop();
+		}
+	}
+
+	@Test
+	public void testBaixasConcorrentesEntreNosNaoVendemAlemDoEstoque() throws Exception {
+		EstoqueBanco estoqueBanco = no1.getBean(EstoqueBanco.class);
+		estoqueBanco.definirQuantidade(10L, 1000L);
+		estoqueBanco.definirQuantidade(20L, 1500L);
+
+		// Cada compra leva 1 unidade do produto 10 e 2 do 20 (o 20 aparece duas vezes de propósito)
+		List<Long> ids = List.of(20L, 10L, 20L);
+		List<Long> quantidades = List.of(1L, 1L, 1L);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2 * THREADS_POR_NO);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Integer>> resultados = new ArrayList<>();
+		for (ConfigurableApplicationContext no : List.of(no1, no2)) {
+			IEstoqueExternal estoque = no.getBean(IEstoqueExternal.class);
+			for (int t = 0; t < THREADS_POR_NO; t++) {
+				resultados.add(executor.submit(() -> {
+					largada.await();
+					int vendidas = 0;
+					for (int i = 0; i < COMPRAS_POR_THREAD; i++) {
+						if (estoque.darBaixa(ids, quantidades).sucesso()) {
+							vendidas++;
+						}
+					}
+					return vendidas;
+				}));
+			}
+		}
+
+		largada.countDown();
+		int vendidas = 0;
+		for (Future<Integer> resultado : resultados) {
+			vendidas += resultado.get(2, TimeUnit.MINUTES);
+		}
+		executor.shutdown();
+
+		EstoqueProdutoRepository repository = no2.getBean(EstoqueProdutoRepository.class);
+		long restante10 = repository.findById(10L).orElseThrow().getQuantidade();
+		long restante20 = repository.findById(20L).orElseThrow().getQuantidade();
+
+		// 2400 tentativas para 750 compras possíveis (limitadas pelo produto 20)
+		assertThat(vendidas).isPositive().isLessThanOrEqualTo(750);
+		assertThat(restante10).isEqualTo(1000L - vendidas).isGreaterThanOrEqualTo(0L);
+		assertThat(restante20).isEqualTo(1500L - 2L * vendidas).isGreaterThanOrEqualTo(0L);
+	}
+
+	@Test
+	public void testDisponibilidadeVistaPeloOutroNo() {
+		no1.getBean(EstoqueBanco.class).definirQuantidade(30L, 5L);
+
+		IEstoqueExternal estoqueNo2 = no2.getBean(IEstoqueExternal.class);
+
+		assertThat(estoqueNo2.verificarDisponibilidade(List.of(30L), List.of(5L)).disponivel()).isTrue();
+		assertThat(estoqueNo2.darBaixa(List.of(30L), List.of(6L)).sucesso()).isFalse();
+		assertThat(estoqueNo2.darBaixa(List.of(30L), List.of(5L)).sucesso()).isTrue();
+		assertThat(no1.getBean(IEstoqueExternal.class).verificarDisponibilidade(List.of(30L), List.of(1L))
+				.idsProdutosIndisponiveis()).containsExactly(30L);
+	}
+
+	@Test
+	public void testFinalizarCompraDaBaixaNaTransacaoDaCompra() {
+		// A baixa roda dentro da transação aberta pelo CompraService, como no /finalizar
+		Cliente cliente = no1.getBean(ClienteRepository.class)
+				.save(new Cliente(null, "Cliente", "Rua", TipoCliente.OURO));
+		ProdutoRepository produtos = no1.getBean(ProdutoRepository.class);
+		Produto livro = produtos.save(new Produto(null, "Livro", "", BigDecimal.valueOf(30), 1, TipoProduto.LIVRO));
+		Produto roupa = produtos.save(new Produto(null, "Roupa", "", BigDecimal.valueOf(50), 1, TipoProduto.ROUPA));
+
+		EstoqueBanco estoqueBanco = no1.getBean(EstoqueBanco.class);
+		estoqueBanco.definirQuantidade(livro.getId(), 3L);
+		estoqueBanco.definirQuantidade(roupa.getId(), 1L);
+
+		CarrinhoDeComprasRepository carrinhos = no1.getBean(CarrinhoDeComprasRepository.class);
+		CarrinhoDeCompras carrinho = carrinhos.save(new CarrinhoDeCompras(null, cliente,
+				new ArrayList<>(List.of(new ItemCompra(null, livro, 2L), new ItemCompra(null, roupa, 1L))),
+				LocalDate.now()));
+
+		CompraService compraService = no1.getBean(CompraService.class);
+		assertThat(compraService.finalizarCompra(carrinho.getId(), cliente.getId()).sucesso()).isTrue();
+
+		EstoqueProdutoRepository repository = no2.getBean(EstoqueProdutoRepository.class);
+		assertThat(repository.findById(livro.getId()).orElseThrow().getQuantidade()).isEqualTo(1L);
+		assertThat(repository.findById(roupa.getId()).orElseThrow().getQuantidade()).isEqualTo(0L);
+
+		// Sem estoque para repetir o carrinho: a compra falha e o estoque não muda
+		assertThatThrownBy(() -> no2.getBean(CompraService.class).finalizarCompra(carrinho.getId(), cliente.getId()))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(repository.findById(livro.getId()).orElseThrow().getQuantidade()).isEqualTo(1L);
+	}
+
+	@Test
+	public void testBaixaComPrazoEsgotadoNaoTocaOEstoque() {
+		EstoqueBanco estoqueBanco = no1.getBean(EstoqueBanco.class);
+		estoqueBanco.definirQuantidade(40L, 5L);
+
+		try (Prazo.Escopo prazo = Prazo.definirEm(-1L)) {
+			assertThatThrownBy(() -> estoqueBanco.darBaixa(List.of(40L), List.of(1L)))
+					.isInstanceOf(PrazoExpiradoException.class);
+			assertThatThrownBy(() -> estoqueBanco.verificarDisponibilidade(List.of(40L), List.of(1L)))
+					.isInstanceOf(PrazoExpiradoException.class);
+		}
+		// Com prazo folgado as consultas levam o timeout do JDBC e completam normalmente
+		try (Prazo.Escopo prazo = Prazo.definirEm(TimeUnit.SECONDS.toNanos(5))) {
+			assertThat(estoqueBanco.darBaixa(List.of(40L), List.of(1L)).sucesso()).isTrue();
+		}
+		assertThat(no2.getBean(EstoqueProdutoRepository.class).findById(40L).orElseThrow().getQuantidade())
+				.isEqualTo(4L);
+	}
+}
@@ -0,0 +1,244 @@
+package ecommerce.integracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.dto.CarrinhoResumoDTO;
+import ecommerce.dto.PaginaCarrinhosDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.repository.CarrinhoDeComprasRepository;
+import ecommerce.repository.ClienteRepository;
+import ecommerce.repository.ProdutoRepository;
+import ecommerce.service.CarrinhoDeComprasService;
+
+/*
+ * Paginação por chave (data, id) do histórico de carrinhos sobre o H2 da
+ * aplicação, pelo serviço e pelos endpoints. Cada teste usa um cliente novo,
+ * então os dados de um não aparecem no outro.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class HistoricoCarrinhosTest {
+
+	private static final LocalDate HOJE = LocalDate.of(2024, 3, 10);
+
+	@Autowired
+	private CarrinhoDeComprasService carrinhoService;
+
+	@Autowired
+	private CarrinhoDeComprasRepository carrinhoRepository;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	public void setup() {
+		cliente = novoCliente();
+	}
+
+	@Test
+	public void testPaginasEncadeadasPercorremOHistoricoNaOrdem() {
+		// Três carrinhos no mesmo dia (empate na data) e dois sem data
+		List<CarrinhoDeCompras> carrinhos = salvar(cliente, HOJE, HOJE.minusDays(3), HOJE, HOJE.minusDays(1), null,
+				HOJE, HOJE.minusDays(3), null);
+		salvar(novoCliente(), HOJE, HOJE.minusDays(1));
+
+		List<Long> percorridos = new ArrayList<>();
+		int paginas = 0;
+		LocalDate data = null;
+		Long id = null;
+		do {
+			PaginaCarrinhosDTO pagina = carrinhoService.buscarHistorico(cliente.getId(), data, id, 2);
+			assertThat(pagina.carrinhos()).hasSizeBetween(1, 2);
+			pagina.carrinhos().forEach(resumo -> percorridos.add(resumo.id()));
+			data = pagina.proximaData();
+			id = pagina.proximoId();
+			paginas++;
+		} while (id != null);
+
+		assertThat(percorridos).containsExactlyElementsOf(esperados(carrinhos));
+		assertThat(paginas).isEqualTo(3);
+	}
+
+	@Test
+	public void testCursorNoMeioDeUmEmpateContinuaPeloId() {
+		List<CarrinhoDeCompras> carrinhos = salvar(cliente, HOJE, HOJE, HOJE, HOJE.minusDays(1));
+		long maiorId = carrinhos.get(2).getId();
+		long meioId = carrinhos.get(1).getId();
+
+		PaginaCarrinhosDTO primeira = carrinhoService.buscarHistorico(cliente.getId(), null, null, 1);
+		assertThat(primeira.carrinhos()).extracting(CarrinhoResumoDTO::id).containsExactly(maiorId);
+		assertThat(primeira.proximaData()).isEqualTo(HOJE);
+		assertThat(primeira.proximoId()).isEqualTo(maiorId);
+
+		PaginaCarrinhosDTO segunda = carrinhoService.buscarHistorico(cliente.getId(), HOJE, maiorId, 1);
+		assertThat(segunda.carrinhos()).extracting(CarrinhoResumoDTO::id).containsExactly(meioId);
+
+		PaginaCarrinhosDTO resto = carrinhoService.buscarHistorico(cliente.getId(), HOJE, meioId, 10);
+		assertThat(resto.carrinhos()).extracting(CarrinhoResumoDTO::id)
+				.containsExactly(carrinhos.get(0).getId(), carrinhos.get(3).getId());
+		assertThat(resto.proximaData()).isNull();
+		assertThat(resto.proximoId()).isNull();
+	}
+
+	@Test
+	public void testUltimaPaginaCompletaNaoTemCursor() {
+		salvar(cliente, HOJE, HOJE.minusDays(1), HOJE.minusDays(2));
+
+		PaginaCarrinhosDTO pagina = carrinhoService.buscarHistorico(cliente.getId(), null, null, 3);
+
+		assertThat(pagina.carrinhos()).hasSize(3);
+		assertThat(pagina.proximaData()).isNull();
+		assertThat(pagina.proximoId()).isNull();
+	}
+
+	@Test
+	public void testCarrinhosSemDataFicamForaDoHistorico() {
+		salvar(cliente, null, null);
+
+		PaginaCarrinhosDTO pagina = carrinhoService.buscarHistorico(cliente.getId(), null, null, 10);
+
+		assertThat(pagina.carrinhos()).isEmpty();
+		assertThat(pagina.proximoId()).isNull();
+		assertThat(carrinhoRepository.buscarHistoricoApos(cliente.getId(), HOJE.plusDays(1), Long.MAX_VALUE,
+				PageRequest.of(0, 10))).isEmpty();
+
+		List<CarrinhoResumoDTO> exportados = new ArrayList<>();
+		carrinhoService.exportarHistorico(cliente.getId(), exportados::add);
+		assertThat(exportados).isEmpty();
+	}
+
+	@Test
+	public void testResumoTrazQuantidadeDeItensETotal() {
+		Produto caro = produtoRepository.save(new Produto(null, "Caro", "", new BigDecimal("10.50"), 1, TipoProduto.ELETRONICO));
+		Produto barato = produtoRepository.save(new Produto(null, "Barato", "", new BigDecimal("3.00"), 1, TipoProduto.ELETRONICO));
+		List<ItemCompra> itens = new ArrayList<>(List.of(new ItemCompra(null, caro, 2L), new ItemCompra(null, barato, 1L)));
+		CarrinhoDeCompras cheio = carrinhoRepository.save(new CarrinhoDeCompras(null, cliente, itens, HOJE));
+		CarrinhoDeCompras vazio = salvar(cliente, HOJE.minusDays(1)).get(0);
+
+		List<CarrinhoResumoDTO> resumos = carrinhoService.buscarHistorico(cliente.getId(), null, null, 10).carrinhos();
+
+		assertThat(resumos).extracting(CarrinhoResumoDTO::id).containsExactly(cheio.getId(), vazio.getId());
+		assertThat(resumos.get(0).itens()).isEqualTo(2L);
+		assertThat(resumos.get(0).total()).isEqualByComparingTo("24.00");
+		assertThat(resumos.get(1).itens()).isZero();
+		assertThat(resumos.get(1).total()).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+
+	@Test
+	public void testEndpointDeExportacaoEscreveUmCarrinhoPorLinha() throws Exception {
+		List<CarrinhoDeCompras> carrinhos = salvar(cliente, HOJE.minusDays(1), null, HOJE);
+
+		MvcResult iniciado = mockMvc.perform(get("/clientes/{clienteId}/carrinhos/exportar", cliente.getId()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult resultado = mockMvc.perform(asyncDispatch(iniciado))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.parseMediaType("application/x-ndjson")))
+				.andReturn();
+
+		List<Long> exportados = new ArrayList<>();
+		for (String linha : resultado.getResponse().getContentAsString().split("\n")) {
+			exportados.add(objectMapper.readValue(linha, CarrinhoResumoDTO.class).id());
+		}
+		assertThat(exportados).containsExactlyElementsOf(esperados(carrinhos));
+	}
+
+	@Test
+	public void testParametrosInvalidosNaWebDevolvemMensagem() throws Exception {
+		mockMvc.perform(get("/clientes/{clienteId}/carrinhos", cliente.getId()).param("tamanho", "0"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensagem").value("Tamanho da página deve estar entre 1 e 500."));
+		mockMvc.perform(get("/clientes/{clienteId}/carrinhos", cliente.getId()).param("aposId", "1"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensagem").value("Informe a data e o id do último carrinho da página anterior."));
+		mockMvc.perform(get("/clientes/{clienteId}/carrinhos", cliente.getId()).param("aposData", "ontem")
+				.param("aposId", "1"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensagem").value("Parâmetro inválido: aposData."));
+	}
+
+	@Test
+	public void testExportacaoSegueAMesmaOrdemDaPaginacao() {
+		List<CarrinhoDeCompras> carrinhos = salvar(cliente, HOJE.minusDays(2), HOJE, null, HOJE, HOJE.minusDays(2));
+
+		List<Long> exportados = new ArrayList<>();
+		carrinhoService.exportarHistorico(cliente.getId(), resumo -> exportados.add(resumo.id()));
+
+		assertThat(exportados).containsExactlyElementsOf(esperados(carrinhos));
+	}
+
+	@Test
+	public void testParametrosInvalidos() {
+		Long clienteId = cliente.getId();
+
+		assertThatThrownBy(() -> carrinhoService.buscarHistorico(clienteId, null, null, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> carrinhoService.buscarHistorico(clienteId, null, null, 501))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> carrinhoService.buscarHistorico(clienteId, HOJE, null, 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private Cliente novoCliente() {
+		return clienteRepository.save(new Cliente(null, "Cliente", "Rua", TipoCliente.BRONZE));
+	}
+
+	private List<CarrinhoDeCompras> salvar(Cliente dono, LocalDate... datas) {
+		List<CarrinhoDeCompras> salvos = new ArrayList<>();
+		for (LocalDate data : datas) {
+			salvos.add(carrinhoRepository.save(new CarrinhoDeCompras(null, dono, new ArrayList<>(), data)));
+		}
+		return salvos;
+	}
+
+	// Ordem do histórico: data decrescente e, no empate, id decrescente; sem os carrinhos sem data
+	private static List<Long> esperados(List<CarrinhoDeCompras> carrinhos) {
+		return carrinhos.stream()
+				.filter(carrinho -> carrinho.getData() != null)
+				.sorted(Comparator.comparing(CarrinhoDeCompras::getData).thenComparing(CarrinhoDeCompras::getId)
+						.reversed())
+				.map(CarrinhoDeCompras::getId)
+				.toList();
+	}
+}
@@ -0,0 +1,84 @@
+package ecommerce.integracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import ecommerce.dto.CompraDTO;
+import ecommerce.dto.compacto.CodecCompacto;
+import ecommerce.dto.compacto.CompactoHttpMessageConverter;
+import ecommerce.service.CompraService;
+
+/*
+ * Negociação de conteúdo do formato compacto pela pilha MVC completa
+ * (conversores registrados no WebConfig, interceptores do /finalizar).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class NegociacaoFormatoCompactoTest {
+
+	private static final CompraDTO COMPRA = new CompraDTO(true, 7_205_759_403_792_793L, "Compra finalizada com sucesso.");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private CompraService compraService;
+
+	@BeforeEach
+	public void setup() {
+		when(compraService.finalizarCompra(anyLong(), anyLong())).thenReturn(COMPRA);
+	}
+
+	@Test
+	public void testAcceptCompactoDevolveCorpoCompactoDecodificavel() throws Exception {
+		MvcResult resultado = mockMvc.perform(post("/finalizar").param("carrinhoId", "1").param("clienteId", "1")
+				.accept(CompactoHttpMessageConverter.TIPO_COMPACTO))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(CompactoHttpMessageConverter.TIPO_COMPACTO))
+				.andReturn();
+
+		byte[] corpo = resultado.getResponse().getContentAsByteArray();
+		assertThat(resultado.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(corpo.length));
+		assertThat(CodecCompacto.decodificar(CompraDTO.class, corpo, 0, corpo.length)).isEqualTo(COMPRA);
+	}
+
+	@Test
+	public void testSemAcceptContinuaJson() throws Exception {
+		mockMvc.perform(post("/finalizar").param("carrinhoId", "1").param("clienteId", "1"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.transacaoPagamentoId").value(COMPRA.transacaoPagamentoId()));
+	}
+
+	@Test
+	public void testAcceptNaoSuportadoDevolve406() throws Exception {
+		mockMvc.perform(post("/finalizar").param("carrinhoId", "1").param("clienteId", "1")
+				.accept(MediaType.APPLICATION_XML))
+				.andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	public void testCorpoCompactoEmTipoSemSuporteDevolve415() throws Exception {
+		// Promocao não tem codificação compacta: o conversor não aceita o corpo
+		mockMvc.perform(put("/promocoes").contentType(CompactoHttpMessageConverter.TIPO_COMPACTO)
+				.content(new byte[] { 1, 0 }))
+				.andExpect(status().isUnsupportedMediaType());
+	}
+}
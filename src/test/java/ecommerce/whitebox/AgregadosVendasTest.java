@@ -0,0 +1,64 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.AgregadosVendasDTO;
+import ecommerce.entity.*;
+import ecommerce.service.AgregadosVendas;
+import ecommerce.service.ResumoCusto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgregadosVendasTest {
+
+    @Test
+    public void testRegistraCompraPorTipoDeProdutoECliente() {
+        AtomicLong relogio = new AtomicLong(1_000_000L);
+        AgregadosVendas agregados = new AgregadosVendas(relogio::get);
+
+        CarrinhoDeCompras carrinho = new CarrinhoDeCompras();
+        carrinho.setItens(Arrays.asList(item(TipoProduto.LIVRO, 100, 1, 2L), item(TipoProduto.ROUPA, 200, 3, 1L)));
+        ResumoCusto custo = new ResumoCusto(BigDecimal.valueOf(400), BigDecimal.valueOf(5), BigDecimal.valueOf(10),
+                BigDecimal.valueOf(40), BigDecimal.valueOf(370));
+        Cliente cliente = new Cliente(1L, "Alan", "Rua", TipoCliente.OURO);
+
+        agregados.registrar(carrinho, cliente, custo);
+        AgregadosVendasDTO resultado = agregados.consultar("1m");
+
+        assertEquals(0, BigDecimal.valueOf(370).compareTo(resultado.porTipoCliente().get(TipoCliente.OURO).receita()));
+        assertEquals(3L, resultado.porTipoCliente().get(TipoCliente.OURO).unidades());
+        assertEquals(2L, resultado.porTipoProduto().get(TipoProduto.LIVRO).unidades());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(resultado.porTipoProduto().get(TipoProduto.LIVRO).frete()));
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(resultado.porTipoProduto().get(TipoProduto.ROUPA).desconto()));
+    }
+
+    @Test
+    public void testComprasAntigasSaemDaJanela() {
+        AtomicLong relogio = new AtomicLong(1_000_000L);
+        AgregadosVendas agregados = new AgregadosVendas(relogio::get);
+
+        CarrinhoDeCompras carrinho = new CarrinhoDeCompras();
+        carrinho.setItens(Arrays.asList(item(TipoProduto.MOVEL, 100, 1, 1L)));
+        ResumoCusto custo = new ResumoCusto(BigDecimal.valueOf(100), BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.valueOf(100));
+        agregados.registrar(carrinho, new Cliente(1L, "Alan", "Rua", TipoCliente.BRONZE), custo);
+
+        relogio.addAndGet(120_000L);
+
+        assertEquals(0L, agregados.consultar("1m").porTipoProduto().get(TipoProduto.MOVEL).unidades());
+        assertEquals(1L, agregados.consultar("5m").porTipoProduto().get(TipoProduto.MOVEL).unidades());
+        assertEquals(1L, agregados.consultar("1h").porTipoProduto().get(TipoProduto.MOVEL).unidades());
+        assertThrows(IllegalArgumentException.class, () -> agregados.consultar("2d"));
+    }
+
+    private ItemCompra item(TipoProduto tipo, double preco, int peso, Long quantidade) {
+        Produto produto = new Produto();
+        produto.setPreco(BigDecimal.valueOf(preco));
+        produto.setPeso(peso);
+        produto.setTipo(tipo);
+        return new ItemCompra(null, produto, quantidade);
+    }
+}
@@ -0,0 +1,74 @@
+package ecommerce.whitebox;
+
+import ecommerce.monitoramento.AnelPeriodos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnelPeriodosTest {
+
+    @Test
+    public void testViradaTrocaOValorEEscritaAtrasadaEDescartada() {
+        AnelPeriodos<LongAdder> anel = new AnelPeriodos<>(2, LongAdder::new);
+
+        LongAdder periodoZero = anel.atual(0L);
+        assertSame(periodoZero, anel.atual(0L));
+
+        // O período 2 reaproveita a posição do 0 com um valor novo
+        LongAdder periodoDois = anel.atual(2L);
+        assertNotSame(periodoZero, periodoDois);
+        assertNull(anel.atual(0L));
+
+        anel.atual(1L).add(3);
+        periodoDois.add(5);
+        List<Long> valores = new ArrayList<>();
+        anel.paraCada(2L, 1, valor -> valores.add(valor.sum()));
+        assertEquals(List.of(5L), valores);
+        anel.paraCada(2L, 10, valor -> valores.add(valor.sum()));
+        assertEquals(3, valores.size());
+    }
+
+    @Test
+    public void testViradaConcorrenteNaoPerdeNemVazaValores() throws Exception {
+        // Com 2 posições, os períodos 0 e 2 disputam a mesma posição do anel
+        AnelPeriodos<LongAdder> anel = new AnelPeriodos<>(2, LongAdder::new);
+        int escritasPorThread = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long periodo = t % 2 == 0 ? 0L : 2L;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < escritasPorThread; i++) {
+                        LongAdder valor = anel.atual(periodo);
+                        if (valor != null) {
+                            valor.add(1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Nenhuma escrita do período 0 entra no período 2 e nenhuma do período 2 se perde
+        assertEquals(4L * escritasPorThread, anel.atual(2L).sum());
+    }
+}
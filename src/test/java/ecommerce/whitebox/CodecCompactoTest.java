@@ -0,0 +1,72 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.CompraDTO;
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.compacto.BufferCompacto;
+import ecommerce.dto.compacto.CodecCompacto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecCompactoTest {
+
+    @Test
+    public void testIdaEVoltaCompraDTO() {
+        List<CompraDTO> compras = Arrays.asList(
+                new CompraDTO(true, 1234L, "Compra finalizada com sucesso."),
+                new CompraDTO(false, null, "Pagamento não autorizado."),
+                new CompraDTO(null, Long.MIN_VALUE, null),
+                new CompraDTO(true, Long.MAX_VALUE, "Emoji 🛒 e acentuação"),
+                new CompraDTO(false, -1L, ""));
+
+        for (CompraDTO compra : compras) {
+            assertEquals(compra, idaEVolta(CompraDTO.class, compra));
+        }
+    }
+
+    @Test
+    public void testIdaEVoltaDisponibilidadeDTO() {
+        List<DisponibilidadeDTO> disponibilidades = Arrays.asList(
+                new DisponibilidadeDTO(true, Collections.emptyList()),
+                new DisponibilidadeDTO(false, Arrays.asList(1L, 300L, 70_000L, -5L)),
+                new DisponibilidadeDTO(null, null));
+
+        for (DisponibilidadeDTO disponibilidade : disponibilidades) {
+            assertEquals(disponibilidade, idaEVolta(DisponibilidadeDTO.class, disponibilidade));
+        }
+    }
+
+    // Protege a compatibilidade com clientes que já decodificam a versão 1 do formato
+    @Test
+    public void testFormatoVersao1() {
+        assertArrayEquals(new byte[] { 1, 1, 0x0F, (byte) 0xA4, 0x13, 2, 'o', 'k' },
+                codificar(new CompraDTO(true, 1234L, "ok")));
+        assertArrayEquals(new byte[] { 1, 2, 0x05, 2, 2, 3 },
+                codificar(new DisponibilidadeDTO(false, Arrays.asList(1L, -2L))));
+    }
+
+    @Test
+    public void testConteudoTruncadoOuDeOutroTipoERejeitado() {
+        byte[] compra = codificar(new CompraDTO(true, 1234L, "ok"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CodecCompacto.decodificar(CompraDTO.class, compra, 0, compra.length - 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> CodecCompacto.decodificar(DisponibilidadeDTO.class, compra, 0, compra.length));
+    }
+
+    private byte[] codificar(Object objeto) {
+        BufferCompacto buffer = BufferCompacto.local();
+        CodecCompacto.codificar(objeto, buffer);
+        return buffer.copiar();
+    }
+
+    private <T> T idaEVolta(Class<T> clazz, T objeto) {
+        byte[] dados = codificar(objeto);
+        return CodecCompacto.decodificar(clazz, dados, 0, dados.length);
+    }
+}
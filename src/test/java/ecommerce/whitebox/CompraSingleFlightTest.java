@@ -0,0 +1,160 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.CompraDTO;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.service.CompraSingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompraSingleFlightTest {
+
+    @Test
+    public void testRequisicoesSimultaneasExecutamUmaUnicaCompra() throws Exception {
+        CompraSingleFlight singleFlight = new CompraSingleFlight();
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberarLider = new CountDownLatch(1);
+        CompraDTO compra = new CompraDTO(true, 1234L, "Compra finalizada com sucesso.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompraDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> singleFlight.executar(1L, 1L, () -> {
+                    execucoes.incrementAndGet();
+                    aguardar(liberarLider);
+                    return compra;
+                })));
+            }
+
+            // O líder só é liberado com as outras 7 requisições já aguardando o resultado dele
+            while (singleFlight.aguardando() < 7) {
+                Thread.onSpinWait();
+            }
+            liberarLider.countDown();
+
+            for (Future<CompraDTO> resultado : resultados) {
+                assertSame(compra, resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, execucoes.get());
+        assertEquals(0, singleFlight.emAndamento());
+    }
+
+    @Test
+    public void testCarrinhosDiferentesNaoSaoAgrupados() {
+        CompraSingleFlight singleFlight = new CompraSingleFlight();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        singleFlight.executar(1L, 1L, () -> new CompraDTO(true, (long) execucoes.incrementAndGet(), ""));
+        singleFlight.executar(2L, 1L, () -> new CompraDTO(true, (long) execucoes.incrementAndGet(), ""));
+
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    public void testExcecaoDoLiderEPropagadaERegistroELimpo() {
+        CompraSingleFlight singleFlight = new CompraSingleFlight();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            singleFlight.executar(1L, 1L, () -> {
+                throw new IllegalStateException("Pagamento não autorizado.");
+            });
+        });
+
+        assertEquals("Pagamento não autorizado.", exception.getMessage());
+        assertEquals(0, singleFlight.emAndamento());
+    }
+
+    @Test
+    public void testPrazoEsgotadoDoLiderNaoEncerraRequisicaoComPrazoProprio() throws Exception {
+        CompraSingleFlight singleFlight = new CompraSingleFlight();
+        CountDownLatch liberarLider = new CountDownLatch(1);
+        CompraDTO compra = new CompraDTO(true, 1234L, "Compra finalizada com sucesso.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CompraDTO> lider = executor.submit(() -> singleFlight.executar(1L, 1L, () -> {
+                aguardar(liberarLider);
+                throw new PrazoExpiradoException("Prazo da requisição esgotado.");
+            }));
+            while (singleFlight.emAndamento() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // Sem prazo próprio esgotado, a segunda requisição refaz a compra depois da falha do líder
+            Future<CompraDTO> seguidor = executor.submit(() -> singleFlight.executar(1L, 1L, () -> compra));
+            while (singleFlight.aguardando() == 0) {
+                Thread.onSpinWait();
+            }
+            liberarLider.countDown();
+
+            ExecutionException falhaLider = assertThrows(ExecutionException.class, () -> lider.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(PrazoExpiradoException.class, falhaLider.getCause());
+            assertSame(compra, seguidor.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, singleFlight.emAndamento());
+        assertEquals(0, singleFlight.aguardando());
+    }
+
+    @Test
+    public void testEsperaLimitadaAoPrazoDeQuemAguarda() throws Exception {
+        CompraSingleFlight singleFlight = new CompraSingleFlight();
+        CountDownLatch liberarLider = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CompraDTO> lider = executor.submit(() -> singleFlight.executar(1L, 1L, () -> {
+                aguardar(liberarLider);
+                return new CompraDTO(true, 1234L, "Compra finalizada com sucesso.");
+            }));
+            while (singleFlight.emAndamento() == 0) {
+                Thread.onSpinWait();
+            }
+
+            Prazo.definirEm(TimeUnit.MILLISECONDS.toNanos(50));
+            long inicio = System.nanoTime();
+            assertThrows(PrazoExpiradoException.class, () -> singleFlight.executar(1L, 1L, () -> {
+                execucoes.incrementAndGet();
+                return null;
+            }));
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertTrue(duracaoMs < 1_000, "duração " + duracaoMs + " ms");
+            assertEquals(0, execucoes.get());
+            assertEquals(0, singleFlight.aguardando());
+
+            liberarLider.countDown();
+            assertTrue(lider.get(5, TimeUnit.SECONDS).sucesso());
+        } finally {
+            Prazo.limpar();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
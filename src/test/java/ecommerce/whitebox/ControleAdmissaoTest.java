@@ -0,0 +1,101 @@
+package ecommerce.whitebox;
+
+import ecommerce.controller.admissao.BucketsPorCliente;
+import ecommerce.controller.admissao.LimiteConcorrenciaAdaptativo;
+import ecommerce.controller.admissao.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControleAdmissaoTest {
+
+    private static final long UM_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTokenBucketRejeitaAoEsgotarERecarrega() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0L);
+
+        assertEquals(0L, bucket.tentarConsumir(0L));
+        assertEquals(0L, bucket.tentarConsumir(0L));
+        long espera = bucket.tentarConsumir(0L);
+        assertTrue(espera > 0 && espera <= UM_SEGUNDO);
+
+        assertEquals(0L, bucket.tentarConsumir(UM_SEGUNDO));
+    }
+
+    @Test
+    public void testBucketsPorClienteSaoIndependentes() {
+        BucketsPorCliente buckets = new BucketsPorCliente(10, 1, 1, UM_SEGUNDO);
+
+        assertEquals(0L, buckets.tentarConsumir(1L, 0L));
+        assertTrue(buckets.tentarConsumir(1L, 0L) > 0);
+        assertEquals(0L, buckets.tentarConsumir(2L, 0L));
+    }
+
+    @Test
+    public void testBucketsPorClienteRespeitaTamanhoMaximo() {
+        BucketsPorCliente buckets = new BucketsPorCliente(2, 5, 1, UM_SEGUNDO);
+
+        buckets.tentarConsumir(1L, 0L);
+        buckets.tentarConsumir(2L, 0L);
+        buckets.tentarConsumir(3L, 0L);
+        assertEquals(2, buckets.tamanho());
+
+        buckets.tentarConsumir(4L, 2 * UM_SEGUNDO);
+        assertTrue(buckets.tamanho() <= 2);
+    }
+
+    @Test
+    public void testLimiteConcorrenciaReduzQuandoLatenciaExcedeAlvo() {
+        LimiteConcorrenciaAdaptativo limite = new LimiteConcorrenciaAdaptativo(2, 1, 10,
+                TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        assertTrue(limite.tentarAdquirir());
+        assertTrue(limite.tentarAdquirir());
+        assertFalse(limite.tentarAdquirir());
+
+        limite.liberar(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1, limite.getLimite());
+        assertFalse(limite.tentarAdquirir());
+
+        limite.liberar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(limite.tentarAdquirir());
+    }
+
+    @Test
+    public void testLimiteConcorrenciaReduzNoMaximoUmaVezPorRtt() {
+        long alvo = TimeUnit.MILLISECONDS.toNanos(100);
+        long lenta = TimeUnit.MILLISECONDS.toNanos(500);
+        LimiteConcorrenciaAdaptativo limite = new LimiteConcorrenciaAdaptativo(40, 1, 100, alvo, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limite.tentarAdquirir());
+        }
+
+        // Três respostas lentas de requisições iniciadas juntas: uma única redução
+        long agora = UM_SEGUNDO;
+        limite.liberar(lenta, agora);
+        limite.liberar(lenta, agora + 1);
+        limite.liberar(lenta, agora + 2);
+        assertEquals(20, limite.getLimite());
+
+        // Requisição iniciada depois da redução ainda lenta: reduz de novo
+        limite.liberar(lenta, agora + lenta + 1);
+        assertEquals(10, limite.getLimite());
+    }
+
+    @Test
+    public void testDevolverLiberaVagaSemAjustarLimite() {
+        LimiteConcorrenciaAdaptativo limite = new LimiteConcorrenciaAdaptativo(1, 1, 10,
+                TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        assertTrue(limite.tentarAdquirir());
+        assertFalse(limite.tentarAdquirir());
+
+        limite.devolver();
+        assertEquals(0, limite.getEmAndamento());
+        assertEquals(1, limite.getLimite());
+        assertTrue(limite.tentarAdquirir());
+    }
+}
@@ -0,0 +1,164 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.external.EstoqueComHedge;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.external.fake.DistribuicaoLatencia;
+import ecommerce.external.fake.EstoqueSimulado;
+import ecommerce.external.fake.PropriedadesSimulacao;
+import ecommerce.external.fake.SimuladorDegradacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EstoqueComHedgeTest {
+
+    private static final List<Long> IDS = List.of(1L);
+    private static final List<Long> QUANTIDADES = List.of(1L);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    public void limpar() {
+        liberar.countDown();
+        executor.shutdownNow();
+        Prazo.limpar();
+    }
+
+    // Estoque de teste: as primeiras chamadas ficam presas até liberar (ou até a espera máxima)
+    private class EstoqueLento implements IEstoqueExternal {
+        private final AtomicInteger chamadas = new AtomicInteger();
+        private final AtomicLong ultimoRestanteNanos = new AtomicLong();
+        private final int chamadasLentas;
+        private final long esperaMs;
+
+        EstoqueLento(int chamadasLentas) {
+            this(chamadasLentas, 2_000);
+        }
+
+        EstoqueLento(int chamadasLentas, long esperaMs) {
+            this.chamadasLentas = chamadasLentas;
+            this.esperaMs = esperaMs;
+        }
+
+        @Override
+        public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            ultimoRestanteNanos.set(Prazo.restanteNanos());
+            if (chamadas.incrementAndGet() <= chamadasLentas) {
+                try {
+                    liberar.await(esperaMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new DisponibilidadeDTO(true, Collections.emptyList());
+        }
+
+        @Override
+        public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            chamadas.incrementAndGet();
+            return new EstoqueBaixaDTO(true);
+        }
+    }
+
+    private EstoqueComHedge hedge(IEstoqueExternal estoque, double taxaMaxima) {
+        return new EstoqueComHedge(estoque, executor, 0.95, TimeUnit.MILLISECONDS.toNanos(20),
+                TimeUnit.MILLISECONDS.toNanos(1), taxaMaxima);
+    }
+
+    @Test
+    public void testHedgeRespondeAntesDaChamadaLenta() {
+        EstoqueLento estoque = new EstoqueLento(1);
+        EstoqueComHedge estoqueComHedge = hedge(estoque, 1.0);
+
+        long inicio = System.nanoTime();
+        assertTrue(estoqueComHedge.verificarDisponibilidade(IDS, QUANTIDADES).disponivel());
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertTrue(duracaoMs < 1_000, "duração " + duracaoMs + " ms");
+        assertEquals(2, estoque.chamadas.get());
+        assertEquals(1, estoqueComHedge.getHedgesEnviados());
+    }
+
+    @Test
+    public void testOrcamentoLimitaHedges() {
+        // Todas as chamadas passam do atraso do hedge; com 50% de orçamento só metade das consultas tem hedge
+        EstoqueLento estoque = new EstoqueLento(Integer.MAX_VALUE, 60);
+        EstoqueComHedge estoqueComHedge = hedge(estoque, 0.5);
+        for (int i = 0; i < 4; i++) {
+            estoqueComHedge.verificarDisponibilidade(IDS, QUANTIDADES);
+        }
+        assertEquals(2, estoqueComHedge.getHedgesEnviados());
+
+        EstoqueLento lento = new EstoqueLento(Integer.MAX_VALUE, 60);
+        EstoqueComHedge semOrcamento = hedge(lento, 0.0);
+        semOrcamento.verificarDisponibilidade(IDS, QUANTIDADES);
+        assertEquals(0, semOrcamento.getHedgesEnviados());
+        assertEquals(1, lento.chamadas.get());
+    }
+
+    @Test
+    public void testPrazoPropagadoParaAChamada() {
+        EstoqueLento estoque = new EstoqueLento(0);
+        Prazo.definirEm(TimeUnit.SECONDS.toNanos(1));
+
+        hedge(estoque, 0.05).verificarDisponibilidade(IDS, QUANTIDADES);
+
+        long restante = estoque.ultimoRestanteNanos.get();
+        assertTrue(restante > 0 && restante <= TimeUnit.SECONDS.toNanos(1), "restante " + restante);
+    }
+
+    @Test
+    public void testPrazoEsgotadoNaoChamaOEstoque() {
+        EstoqueLento estoque = new EstoqueLento(0);
+        Prazo.definir(System.nanoTime() - 1);
+
+        assertThrows(PrazoExpiradoException.class, () -> hedge(estoque, 1.0).verificarDisponibilidade(IDS, QUANTIDADES));
+        assertEquals(0, estoque.chamadas.get());
+    }
+
+    @Test
+    public void testPrazoEsgotaDuranteAEspera() {
+        EstoqueLento estoque = new EstoqueLento(2);
+        Prazo.definirEm(TimeUnit.MILLISECONDS.toNanos(100));
+
+        long inicio = System.nanoTime();
+        assertThrows(PrazoExpiradoException.class, () -> hedge(estoque, 1.0).verificarDisponibilidade(IDS, QUANTIDADES));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 1_000);
+    }
+
+    @Test
+    public void testBaixaNaoTemHedge() {
+        EstoqueLento estoque = new EstoqueLento(0);
+
+        assertTrue(hedge(estoque, 1.0).darBaixa(IDS, QUANTIDADES).sucesso());
+        assertEquals(1, estoque.chamadas.get());
+    }
+
+    @Test
+    public void testSimuladorNaoExecutaOperacaoAposOPrazo() {
+        EstoqueSimulado estoque = new EstoqueSimulado(new SimuladorDegradacao(DistribuicaoLatencia.fixa(200),
+                new PropriedadesSimulacao(), System::nanoTime));
+
+        Prazo.definirEm(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThrows(PrazoExpiradoException.class, () -> estoque.darBaixa(List.of(2L), List.of(50L)));
+        Prazo.limpar();
+
+        // A baixa abortada não consumiu o estoque do produto 2 (50 unidades)
+        assertTrue(estoque.verificarDisponibilidade(List.of(2L), List.of(50L)).disponivel());
+    }
+}
@@ -0,0 +1,25 @@
+package ecommerce.whitebox;
+
+import ecommerce.monitoramento.JanelaContadores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JanelaContadoresTest {
+
+    @Test
+    public void testSomaApenasIntervalosDaJanela() {
+        JanelaContadores janela = new JanelaContadores(3, 1_000L, 2);
+
+        janela.adicionar(0L, 0, 5);
+        janela.adicionar(1_500L, 1, 7);
+        janela.adicionar(2_100L, 0, 1);
+
+        assertArrayEquals(new long[] { 6, 7 }, janela.somar(2_999L, 3));
+        assertArrayEquals(new long[] { 1, 7 }, janela.somar(2_999L, 2));
+
+        // O período 3 reaproveita a posição do período 0
+        janela.adicionar(3_000L, 0, 2);
+        assertArrayEquals(new long[] { 3, 7 }, janela.somar(3_000L, 3));
+    }
+}
@@ -0,0 +1,156 @@
+package ecommerce.whitebox;
+
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.service.promocao.MotorPromocoes;
+import ecommerce.service.promocao.Promocao;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MotorPromocoesTest {
+
+    private final AtomicLong agora = new AtomicLong(1_000_000L);
+
+    private CarrinhoDeCompras carrinho(ItemCompra... itens) {
+        CarrinhoDeCompras carrinho = new CarrinhoDeCompras();
+        carrinho.setItens(Arrays.asList(itens));
+        return carrinho;
+    }
+
+    private ItemCompra item(long produtoId, TipoProduto tipo, double preco, long quantidade) {
+        Produto produto = new Produto(produtoId, "Produto " + produtoId, "", BigDecimal.valueOf(preco), 1, tipo);
+        return new ItemCompra(produtoId, produto, quantidade);
+    }
+
+    @Test
+    public void testRegrasPadraoReproduzemFaixasFixas() {
+        MotorPromocoes motor = new MotorPromocoes();
+        Random random = new Random(42);
+        List<BigDecimal> valores = new ArrayList<>(List.of(BigDecimal.ZERO, BigDecimal.valueOf(500), BigDecimal.valueOf(500.01),
+                BigDecimal.valueOf(1000), BigDecimal.valueOf(1000.01)));
+        for (int i = 0; i < 1000; i++) {
+            valores.add(BigDecimal.valueOf(random.nextInt(200_000), 2));
+        }
+
+        for (BigDecimal custoProdutos : valores) {
+            BigDecimal esperado = BigDecimal.ZERO;
+            if (custoProdutos.compareTo(BigDecimal.valueOf(1000)) > 0) {
+                esperado = custoProdutos.multiply(BigDecimal.valueOf(0.2));
+            } else if (custoProdutos.compareTo(BigDecimal.valueOf(500)) > 0) {
+                esperado = custoProdutos.multiply(BigDecimal.valueOf(0.1));
+            }
+            for (TipoCliente tipo : TipoCliente.values()) {
+                assertEquals(esperado, motor.calcularDesconto(carrinho(), tipo, custoProdutos));
+            }
+        }
+    }
+
+    @Test
+    public void testMelhorPromocaoPorItemEPorValor() {
+        MotorPromocoes motor = new MotorPromocoes(List.of(
+                Promocao.porProduto("produto-7", 7L, new BigDecimal("0.30")),
+                Promocao.porTipoProduto("livros", TipoProduto.LIVRO, new BigDecimal("0.10")),
+                Promocao.porTipoProduto("livros-ouro", TipoProduto.LIVRO, new BigDecimal("0.50")).paraCliente(TipoCliente.OURO),
+                Promocao.porValorCarrinho("acima-100", BigDecimal.valueOf(100), new BigDecimal("0.05"))), agora::get);
+
+        CarrinhoDeCompras carrinho = carrinho(item(7L, TipoProduto.LIVRO, 100, 1), item(8L, TipoProduto.LIVRO, 50, 2),
+                item(9L, TipoProduto.ROUPA, 20, 1));
+        BigDecimal custoProdutos = BigDecimal.valueOf(220);
+
+        // 5% de 220 + 30% de 100 (produto vence o tipo) + 10% de 100
+        assertEquals(0, new BigDecimal("51").compareTo(motor.calcularDesconto(carrinho, TipoCliente.BRONZE, custoProdutos)));
+        // Ouro: 5% de 220 + 50% de 100 + 50% de 100
+        assertEquals(0, new BigDecimal("111").compareTo(motor.calcularDesconto(carrinho, TipoCliente.OURO, custoProdutos)));
+    }
+
+    @Test
+    public void testDescontoLimitadoAoCustoDosProdutos() {
+        MotorPromocoes motor = new MotorPromocoes(List.of(
+                Promocao.porProduto("gratis", 1L, BigDecimal.ONE),
+                Promocao.porValorCarrinho("acima-0", BigDecimal.ZERO, new BigDecimal("0.5"))), agora::get);
+
+        BigDecimal desconto = motor.calcularDesconto(carrinho(item(1L, TipoProduto.MOVEL, 10, 1)), TipoCliente.PRATA,
+                BigDecimal.valueOf(10));
+
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(desconto));
+    }
+
+    @Test
+    public void testVigenciaRecompilaNaFronteira() {
+        Promocao blackFriday = Promocao.porValorCarrinho("black-friday", BigDecimal.ZERO, new BigDecimal("0.4"))
+                .vigente(Instant.ofEpochMilli(2_000_000L), Instant.ofEpochMilli(3_000_000L));
+        MotorPromocoes motor = new MotorPromocoes(List.of(blackFriday), agora::get);
+        BigDecimal custo = BigDecimal.valueOf(100);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+        agora.set(2_000_000L);
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+        agora.set(2_999_999L);
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+        agora.set(3_000_000L);
+        assertEquals(0, BigDecimal.ZERO.compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+    }
+
+    @Test
+    public void testSalvarRemoverESubstituir() {
+        MotorPromocoes motor = new MotorPromocoes(List.of(), agora::get);
+        BigDecimal custo = BigDecimal.valueOf(600);
+
+        motor.salvar(Promocao.porValorCarrinho("faixa", BigDecimal.valueOf(500), new BigDecimal("0.1")));
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+
+        motor.salvar(Promocao.porValorCarrinho("faixa", BigDecimal.valueOf(500), new BigDecimal("0.2")));
+        assertEquals(1, motor.listar().size());
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+
+        assertTrue(motor.remover("faixa"));
+        assertFalse(motor.remover("faixa"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(motor.calcularDesconto(carrinho(), TipoCliente.BRONZE, custo)));
+
+        motor.substituir(MotorPromocoes.padrao());
+        assertEquals(2, motor.listar().size());
+        assertThrows(IllegalArgumentException.class, () -> motor.substituir(List.of(
+                Promocao.porProduto("x", 1L, new BigDecimal("0.1")), Promocao.porProduto("x", 2L, new BigDecimal("0.1")))));
+    }
+
+    @Test
+    public void testMuitasFaixasUsamOMaiorPercentualAbaixoDoValor() {
+        List<Promocao> regras = new ArrayList<>();
+        Random random = new Random(7);
+        double[] percentuais = new double[500];
+        for (int i = 0; i < percentuais.length; i++) {
+            percentuais[i] = (random.nextInt(99) + 1) / 100.0;
+            regras.add(Promocao.porValorCarrinho("faixa-" + i, BigDecimal.valueOf(i * 10L), BigDecimal.valueOf(percentuais[i])));
+        }
+        MotorPromocoes motor = new MotorPromocoes(regras, agora::get);
+
+        for (int valor = 0; valor <= 5_010; valor += 7) {
+            double melhor = 0;
+            for (int i = 0; i < percentuais.length && i * 10 < valor; i++) {
+                melhor = Math.max(melhor, percentuais[i]);
+            }
+            BigDecimal custo = BigDecimal.valueOf(valor);
+            BigDecimal esperado = melhor == 0 ? BigDecimal.ZERO : custo.multiply(BigDecimal.valueOf(melhor));
+            assertEquals(0, esperado.compareTo(motor.calcularDesconto(carrinho(), TipoCliente.OURO, custo)), "valor " + valor);
+        }
+    }
+
+    @Test
+    public void testPromocaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> Promocao.porProduto("p", null, new BigDecimal("0.1")));
+        assertThrows(IllegalArgumentException.class, () -> Promocao.porTipoProduto("t", TipoProduto.LIVRO, new BigDecimal("1.5")));
+        assertThrows(IllegalArgumentException.class, () -> Promocao.porValorCarrinho("v", BigDecimal.TEN, BigDecimal.ZERO));
+    }
+}
@@ -0,0 +1,152 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.dto.PagamentoDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.IPagamentoExternal;
+import ecommerce.service.CarrinhoDeComprasService;
+import ecommerce.service.ClienteService;
+import ecommerce.service.CompraService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Orçamento de alocação do caminho de compra, medido pelos contadores de bytes
+ * alocados por thread da JVM. Os dublês são escritos à mão (sem Mockito) para
+ * que só o código do CompraService entre na conta. Com 5 itens o JIT fica em
+ * torno de 1,1 KB por cálculo e 2,5 KB por compra; os orçamentos têm folga para
+ * variações de JVM e só devem quebrar com uma regressão real.
+ */
+public class OrcamentoAlocacaoTest {
+
+    private static final long ORCAMENTO_CALCULO_BYTES = 2_048;
+    private static final long ORCAMENTO_COMPRA_BYTES = 4_096;
+
+    private static final int AQUECIMENTO = 20_000;
+    private static final int ITERACOES = 10_000;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private CompraService compraService;
+    private CarrinhoDeCompras carrinho;
+    private Cliente cliente;
+
+    @BeforeEach
+    public void setup() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        cliente = new Cliente(1L, "Alan", "Rua", TipoCliente.PRATA);
+        List<ItemCompra> itens = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i);
+            produto.setPreco(BigDecimal.valueOf(99.9 + i));
+            produto.setPeso(1 + i);
+            itens.add(new ItemCompra((long) i, produto, (long) i));
+        }
+        carrinho = new CarrinhoDeCompras(1L, cliente, itens, LocalDate.now());
+
+        compraService = new CompraService(new CarrinhoDeComprasFixo(carrinho), new ClienteFixo(cliente),
+                new EstoqueFixo(), new PagamentoFixo());
+    }
+
+    @Test
+    public void testAlocacaoCalcularCustoTotal() {
+        long bytesPorChamada = medir(() -> compraService.calcularCustoTotal(carrinho, cliente));
+        assertTrue(bytesPorChamada <= ORCAMENTO_CALCULO_BYTES,
+                "calcularCustoTotal alocou " + bytesPorChamada + " bytes (orçamento " + ORCAMENTO_CALCULO_BYTES + ")");
+    }
+
+    @Test
+    public void testAlocacaoFinalizarCompra() {
+        long bytesPorChamada = medir(() -> compraService.finalizarCompra(1L, 1L));
+        assertTrue(bytesPorChamada <= ORCAMENTO_COMPRA_BYTES,
+                "finalizarCompra alocou " + bytesPorChamada + " bytes (orçamento " + ORCAMENTO_COMPRA_BYTES + ")");
+    }
+
+    private long medir(Runnable operacao) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            operacao.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long antes = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERACOES; i++) {
+            operacao.run();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - antes) / ITERACOES;
+    }
+
+    private static class ClienteFixo extends ClienteService {
+        private final Cliente cliente;
+
+        ClienteFixo(Cliente cliente) {
+            super(null);
+            this.cliente = cliente;
+        }
+
+        @Override
+        public Cliente buscarPorId(Long clienteId) {
+            return cliente;
+        }
+    }
+
+    private static class CarrinhoDeComprasFixo extends CarrinhoDeComprasService {
+        private final CarrinhoDeCompras carrinho;
+
+        CarrinhoDeComprasFixo(CarrinhoDeCompras carrinho) {
+            super(null, null);
+            this.carrinho = carrinho;
+        }
+
+        @Override
+        public CarrinhoDeCompras buscarPorCarrinhoIdEClienteId(Long carrinhoId, Cliente cliente) {
+            return carrinho;
+        }
+    }
+
+    private static class EstoqueFixo implements IEstoqueExternal {
+        private final DisponibilidadeDTO disponibilidade = new DisponibilidadeDTO(true, Collections.emptyList());
+        private final EstoqueBaixaDTO baixa = new EstoqueBaixaDTO(true);
+
+        @Override
+        public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            return baixa;
+        }
+
+        @Override
+        public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            return disponibilidade;
+        }
+    }
+
+    private static class PagamentoFixo implements IPagamentoExternal {
+        private final PagamentoDTO pagamento = new PagamentoDTO(true, 1234L);
+
+        @Override
+        public PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal) {
+            return pagamento;
+        }
+
+        @Override
+        public void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId) {
+        }
+    }
+}
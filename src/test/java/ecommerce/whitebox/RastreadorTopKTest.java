@@ -0,0 +1,55 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.ProdutoQuenteDTO;
+import ecommerce.monitoramento.CountMinSketch;
+import ecommerce.monitoramento.RastreadorTopK;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RastreadorTopKTest {
+
+    @Test
+    public void testCountMinSketchNuncaSubestima() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (long id = 0; id < 500; id++) {
+            sketch.adicionar(id, id + 1);
+        }
+        for (long id = 0; id < 500; id++) {
+            assertTrue(sketch.estimar(id) >= id + 1);
+        }
+    }
+
+    @Test
+    public void testProdutosMaisFrequentesDentroDaJanela() {
+        AtomicLong relogio = new AtomicLong(0);
+        RastreadorTopK rastreador = new RastreadorTopK(60, 4, 1024, 3, 16, relogio::get);
+
+        for (long id = 100; id < 1100; id++) {
+            rastreador.registrar(id, 1);
+        }
+        rastreador.registrar(1L, 500);
+        rastreador.registrar(2L, 300);
+        rastreador.registrar(3L, 200);
+
+        List<ProdutoQuenteDTO> maisFrequentes = rastreador.maisFrequentes(1, 3);
+        assertEquals(List.of(1L, 2L, 3L), maisFrequentes.stream().map(ProdutoQuenteDTO::produtoId).toList());
+        assertTrue(maisFrequentes.get(0).quantidadeEstimada() >= 500);
+    }
+
+    @Test
+    public void testMinutosForaDaJanelaSaoIgnorados() {
+        AtomicLong relogio = new AtomicLong(0);
+        RastreadorTopK rastreador = new RastreadorTopK(60, 4, 1024, 3, 16, relogio::get);
+
+        rastreador.registrar(1L, 10);
+        relogio.set(10 * 60_000L);
+        rastreador.registrar(2L, 1);
+
+        assertEquals(List.of(2L), rastreador.maisFrequentes(5, 3).stream().map(ProdutoQuenteDTO::produtoId).toList());
+        assertEquals(List.of(1L, 2L), rastreador.maisFrequentes(60, 3).stream().map(ProdutoQuenteDTO::produtoId).toList());
+    }
+}
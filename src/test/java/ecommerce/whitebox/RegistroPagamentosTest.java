@@ -0,0 +1,95 @@
+package ecommerce.whitebox;
+
+import ecommerce.dto.PagamentoDTO;
+import ecommerce.external.fake.GeradorIdTransacao;
+import ecommerce.external.fake.RegistroPagamentos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistroPagamentosTest {
+
+    @Test
+    public void testIdsDeTransacaoNaoSeRepetemEntreThreads() throws Exception {
+        GeradorIdTransacao gerador = new GeradorIdTransacao(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int j = 0; j < 50_000; j++) {
+                        assertTrue(ids.add(gerador.proximo()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(400_000, ids.size());
+    }
+
+    @Test
+    public void testIdsContinuamUnicosQuandoORelogioVolta() {
+        AtomicLong relogio = new AtomicLong(1_800_000_000_000L);
+        GeradorIdTransacao gerador = new GeradorIdTransacao(1, relogio::get);
+
+        long primeiro = gerador.proximo();
+        relogio.addAndGet(-1_000L);
+        long segundo = gerador.proximo();
+
+        assertTrue(segundo > primeiro);
+    }
+
+    @Test
+    public void testBuscaPorClienteECancelamento() {
+        RegistroPagamentos registro = new RegistroPagamentos(1_000L, 100L, new AtomicLong()::get);
+        registro.registrar(1L, new PagamentoDTO(true, 10L));
+        registro.registrar(1L, new PagamentoDTO(true, 11L));
+        registro.registrar(2L, new PagamentoDTO(true, 12L));
+
+        assertEquals(2, registro.buscarPorCliente(1L).size());
+        assertFalse(registro.remover(2L, 10L));
+        assertTrue(registro.remover(1L, 10L));
+        assertEquals(List.of(new PagamentoDTO(true, 11L)), registro.buscarPorCliente(1L));
+    }
+
+    @Test
+    public void testRegistroSemClienteNaoAlteraNada() {
+        RegistroPagamentos registro = new RegistroPagamentos(1_000L, 100L, new AtomicLong()::get);
+
+        assertThrows(IllegalArgumentException.class, () -> registro.registrar(null, new PagamentoDTO(true, 10L)));
+        assertThrows(IllegalArgumentException.class, () -> registro.registrar(1L, new PagamentoDTO(true, null)));
+
+        assertEquals(0, registro.tamanho());
+        assertNull(registro.buscar(10L));
+    }
+
+    @Test
+    public void testAutorizacoesExpiradasSaoRemovidas() {
+        AtomicLong relogio = new AtomicLong();
+        RegistroPagamentos registro = new RegistroPagamentos(1_000L, 100L, relogio::get);
+        registro.registrar(1L, new PagamentoDTO(true, 10L));
+
+        relogio.set(2_000L);
+        assertNull(registro.buscar(10L));
+        assertTrue(registro.buscarPorCliente(1L).isEmpty());
+
+        registro.registrar(2L, new PagamentoDTO(true, 11L));
+        assertEquals(1, registro.tamanho());
+    }
+}
@@ -0,0 +1,67 @@
+package ecommerce.whitebox;
+
+import ecommerce.external.fake.DistribuicaoLatencia;
+import ecommerce.external.fake.FalhaSimuladaException;
+import ecommerce.external.fake.PropriedadesSimulacao;
+import ecommerce.external.fake.SimuladorDegradacao;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimuladorDegradacaoTest {
+
+    @Test
+    public void testDistribuicoesDeLatencia() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), DistribuicaoLatencia.fixa(5).amostrarNanos(aleatorio));
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(DistribuicaoLatencia.normal(1, 10).amostrarNanos(aleatorio) >= 0);
+            assertTrue(DistribuicaoLatencia.logNormal(10, 1).amostrarNanos(aleatorio) > 0);
+            long amostra = DistribuicaoLatencia.histograma(new long[] { 1L, 2L, 3L }).amostrarNanos(aleatorio);
+            assertTrue(amostra >= 1L && amostra <= 3L);
+        }
+    }
+
+    @Test
+    public void testAtrasoAgendadoAntesDeExecutar() {
+        SimuladorDegradacao simulador = new SimuladorDegradacao(DistribuicaoLatencia.fixa(50),
+                new PropriedadesSimulacao(), System::nanoTime);
+
+        long inicio = System.nanoTime();
+        assertEquals("ok", simulador.executar(() -> "ok"));
+        assertTrue(System.nanoTime() - inicio >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testFalhaInjetada() {
+        PropriedadesSimulacao propriedades = new PropriedadesSimulacao();
+        propriedades.setTaxaFalha(1.0);
+        SimuladorDegradacao simulador = new SimuladorDegradacao(propriedades);
+
+        assertThrows(FalhaSimuladaException.class, () -> simulador.executar(() -> "ok"));
+    }
+
+    @Test
+    public void testBrownoutAtivaFalhasApenasDentroDaJanela() {
+        PropriedadesSimulacao propriedades = new PropriedadesSimulacao();
+        propriedades.getBrownout().setInicioS(10);
+        propriedades.getBrownout().setDuracaoS(5);
+        propriedades.getBrownout().setPeriodoS(60);
+        propriedades.getBrownout().setTaxaFalha(1.0);
+        AtomicLong relogio = new AtomicLong();
+        SimuladorDegradacao simulador = new SimuladorDegradacao(propriedades, relogio::get);
+
+        assertEquals("ok", simulador.executar(() -> "ok"));
+        relogio.set(TimeUnit.SECONDS.toNanos(12));
+        assertThrows(FalhaSimuladaException.class, () -> simulador.executar(() -> "ok"));
+        relogio.set(TimeUnit.SECONDS.toNanos(20));
+        assertEquals("ok", simulador.executar(() -> "ok"));
+        relogio.set(TimeUnit.SECONDS.toNanos(72));
+        assertThrows(FalhaSimuladaException.class, () -> simulador.executar(() -> "ok"));
+    }
+}
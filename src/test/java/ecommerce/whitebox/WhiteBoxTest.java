@@ -3,12 +3,21 @@ import ecommerce.dto.*;
 import ecommerce.entity.*;
 import ecommerce.external.IEstoqueExternal;
 import ecommerce.external.IPagamentoExternal;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.external.fake.FalhaSimuladaException;
+import ecommerce.service.AgregadosVendas;
 import ecommerce.service.CarrinhoDeComprasService;
 import ecommerce.service.ClienteService;
 import ecommerce.service.CompraService;
+import ecommerce.service.promocao.MotorPromocoes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
@@ -95,6 +104,80 @@ public class WhiteBoxTest {
         assertEquals("Erro ao dar baixa no estoque.", exception.getMessage());
         verify(pagamentoExternal, times(1)).cancelarPagamento(anyLong(), anyLong());
     }
+    @Test
+    public void testFinalizarCompraCancelaPagamentoQuandoBaixaLancaExcecao() {
+        when(clienteService.buscarPorId(1L)).thenReturn(clienteBronze);
+        when(carrinhoService.buscarPorCarrinhoIdEClienteId(1L, clienteBronze)).thenReturn(carrinho);
+        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList())).thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble())).thenReturn(new PagamentoDTO(true, 1234L));
+        when(estoqueExternal.darBaixa(anyList(), anyList())).thenThrow(new FalhaSimuladaException("Falha no serviço externo (simulada)."));
+        assertThrows(FalhaSimuladaException.class, () -> {
+            compraService.finalizarCompra(1L, 1L);
+        });
+        verify(pagamentoExternal, times(1)).cancelarPagamento(1L, 1234L);
+    }
+    @Test
+    public void testFinalizarCompraCancelaPagamentoQuandoPrazoOuBancoFalhamNaBaixa() {
+        when(clienteService.buscarPorId(1L)).thenReturn(clienteBronze);
+        when(carrinhoService.buscarPorCarrinhoIdEClienteId(1L, clienteBronze)).thenReturn(carrinho);
+        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList())).thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble())).thenReturn(new PagamentoDTO(true, 1234L));
+        when(estoqueExternal.darBaixa(anyList(), anyList()))
+                .thenThrow(new PrazoExpiradoException("Prazo da requisição esgotado."))
+                .thenThrow(new CannotAcquireLockException("Timeout de lock no estoque."));
+        assertThrows(PrazoExpiradoException.class, () -> {
+            compraService.finalizarCompra(1L, 1L);
+        });
+        assertThrows(CannotAcquireLockException.class, () -> {
+            compraService.finalizarCompra(1L, 1L);
+        });
+        verify(pagamentoExternal, times(2)).cancelarPagamento(1L, 1234L);
+    }
+    @Test
+    public void testFinalizarCompraFalhaNoCancelamentoMantemErroDaBaixa() {
+        when(clienteService.buscarPorId(1L)).thenReturn(clienteBronze);
+        when(carrinhoService.buscarPorCarrinhoIdEClienteId(1L, clienteBronze)).thenReturn(carrinho);
+        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList())).thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble())).thenReturn(new PagamentoDTO(true, 1234L));
+        when(estoqueExternal.darBaixa(anyList(), anyList())).thenReturn(new EstoqueBaixaDTO(false));
+        FalhaSimuladaException falhaCancelamento = new FalhaSimuladaException("Falha no serviço externo (simulada).");
+        doThrow(falhaCancelamento).when(pagamentoExternal).cancelarPagamento(anyLong(), anyLong());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            compraService.finalizarCompra(1L, 1L);
+        });
+        assertEquals("Erro ao dar baixa no estoque.", exception.getMessage());
+        assertSame(falhaCancelamento, exception.getSuppressed()[0]);
+        verify(pagamentoExternal, times(1)).cancelarPagamento(1L, 1234L);
+    }
+    @Test
+    public void testCompraDesfeitaNoCommitNaoEntraNosAgregados() {
+        when(clienteService.buscarPorId(1L)).thenReturn(clienteBronze);
+        when(carrinhoService.buscarPorCarrinhoIdEClienteId(1L, clienteBronze)).thenReturn(carrinho);
+        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList())).thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble())).thenReturn(new PagamentoDTO(true, 1234L));
+        when(estoqueExternal.darBaixa(anyList(), anyList())).thenReturn(new EstoqueBaixaDTO(true));
+        AgregadosVendas agregados = new AgregadosVendas();
+
+        // As etapas rodam até o fim, mas o commit falha
+        TransactionOperations commitFalha = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> acao) {
+                acao.doInTransaction(new SimpleTransactionStatus());
+                throw new TransactionSystemException("Falha no commit.");
+            }
+        };
+        CompraService comCommitFalho = new CompraService(carrinhoService, clienteService, estoqueExternal,
+                pagamentoExternal, agregados, new MotorPromocoes(), commitFalha);
+        assertThrows(TransactionSystemException.class, () -> {
+            comCommitFalho.finalizarCompra(1L, 1L);
+        });
+        assertEquals(0L, agregados.consultar("1m").porTipoCliente().get(TipoCliente.BRONZE).unidades());
+
+        CompraService comCommit = new CompraService(carrinhoService, clienteService, estoqueExternal,
+                pagamentoExternal, agregados, new MotorPromocoes(), TransactionOperations.withoutTransaction());
+        assertTrue(comCommit.finalizarCompra(1L, 1L).sucesso());
+        assertEquals(1L, agregados.consultar("1m").porTipoCliente().get(TipoCliente.BRONZE).unidades());
+    }
 
     // Testes para ClienteService
     /*Buscar cliente por ID com sucesso